@@ -0,0 +1,128 @@
+package kz.homework.task.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.handler.ControllerExceptionHandler;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths from the exception being thrown to the {@link ControllerExceptionHandler} response, the way a request
+ * that fails them pays for it. Handler logging is switched off in {@code logback.xml}. {@code apiException} is a newly
+ * constructed exception with its stack trace, {@code stacklessApiException} the preallocated one used for expected
+ * errors; run with {@code -prof gc} to compare their allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorHandlingBenchmark {
+
+    private static final byte[] INVALID_STATUS_BODY = "{\"title\":\"Task\",\"status\":\"UNKNOWN\"}".getBytes();
+
+    private static final HttpInputMessage INVALID_STATUS_MESSAGE = new HttpInputMessage() {
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(INVALID_STATUS_BODY);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return HttpHeaders.EMPTY;
+        }
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ControllerExceptionHandler handler;
+    private MethodParameter statusParameter;
+    private MethodParameter requestParameter;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new ControllerExceptionHandler(new SimpleMeterRegistry());
+        // stand-ins for controller parameters, the handler only reads their names and types
+        statusParameter = new MethodParameter(ErrorHandlingBenchmark.class.getDeclaredMethod("statusParameter", Status.class), 0);
+        requestParameter = new MethodParameter(ErrorHandlingBenchmark.class.getDeclaredMethod("requestParameter", TaskRequest.class), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static void statusParameter(Status status) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void requestParameter(TaskRequest taskRequest) {
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> apiException() {
+        try {
+            throw new ApiException(ApiError.RESOURCE_NOT_FOUND);
+        } catch (ApiException e) {
+            return handler.handleApiExceptions(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> stacklessApiException() {
+        try {
+            throw StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+        } catch (ApiException e) {
+            return handler.handleApiExceptions(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unreadableBody() throws Exception {
+        try {
+            objectMapper.readValue(INVALID_STATUS_BODY, TaskRequest.class);
+            throw new IllegalStateException("body was expected to be rejected");
+        } catch (JsonProcessingException e) {
+            return handler.handleMapperErrors(new HttpMessageNotReadableException(
+                    "JSON parse error: " + e.getOriginalMessage(), e, INVALID_STATUS_MESSAGE));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> typeMismatch() {
+        return handler.handleMethodArgumentTypeMismatchException(new MethodArgumentTypeMismatchException(
+                "UNKNOWN", Status.class, "status", statusParameter, new IllegalArgumentException("No enum constant UNKNOWN")));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> invalidArgument() {
+        TaskRequest taskRequest = new TaskRequest("", null, null);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(taskRequest, "taskRequest");
+        bindingResult.addError(new FieldError("taskRequest", "title", "", false, null, null, "must not be blank"));
+        return handler.handleMethodArgumentNotValidException(new MethodArgumentNotValidException(requestParameter, bindingResult));
+    }
+}
@@ -0,0 +1,71 @@
+package kz.homework.task.benchmark;
+
+import kz.homework.task.filter.CapturedBody;
+import kz.homework.task.filter.LogEntryFactory;
+import kz.homework.task.filter.RequestLog;
+import kz.homework.task.filter.RequestLogProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LogEntryFactory#buildLogEntry} for a JSON request and response of the given size, with the default masking
+ * and body size settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogEntryBenchmark {
+
+    @Param({"1024", "65536"})
+    private int bodySize;
+
+    private LogEntryFactory logEntryFactory;
+    private RequestLog requestLog;
+
+    @Setup
+    public void setUp() {
+        RequestLogProperties properties = new RequestLogProperties();
+        logEntryFactory = new LogEntryFactory(properties);
+        CapturedBody body = capture(TaskJson.array(bodySize), properties.getMaxBodySize());
+
+        Map<String, String> requestHeaders = new LinkedHashMap<>();
+        requestHeaders.put("host", "localhost:8080");
+        requestHeaders.put("content-type", "application/json");
+        requestHeaders.put("content-length", String.valueOf(body.size()));
+        requestHeaders.put("authorization", "***");
+        Map<String, String> responseHeaders = new LinkedHashMap<>();
+        responseHeaders.put("Content-Type", "application/json");
+        responseHeaders.put("Transfer-Encoding", "chunked");
+
+        requestLog = new RequestLog("POST", "/api/v1/tasks/batch", Map.of("dryRun", "[false]"), Map.of(),
+                requestHeaders, body, 201, responseHeaders, body);
+    }
+
+    @Benchmark
+    public String buildLogEntry() {
+        return logEntryFactory.buildLogEntry(requestLog);
+    }
+
+    private static CapturedBody capture(String json, int maxBodySize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new CapturedBody(Arrays.copyOf(bytes, Math.min(bytes.length, maxBodySize)), bytes.length);
+    }
+}
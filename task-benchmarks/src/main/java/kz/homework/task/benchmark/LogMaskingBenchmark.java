@@ -0,0 +1,55 @@
+package kz.homework.task.benchmark;
+
+import kz.homework.task.filter.JsonFieldMasker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex masking that {@code LogEntryFactory} used before with {@link JsonFieldMasker}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogMaskingBenchmark {
+
+    private static final String MASKING_PATTERN = "(\"fileContents\")\\s?:\\s?\"\\S*?\"";
+    private static final String MASK_TEMPLATE = "$1 : \"***\"";
+
+    @Param({"1024", "65536"})
+    private int bodySize;
+
+    private byte[] body;
+    private JsonFieldMasker masker;
+
+    @Setup
+    public void setUp() {
+        body = TaskJson.array(bodySize).getBytes(StandardCharsets.UTF_8);
+        masker = new JsonFieldMasker(List.of("fileContents"), Integer.MAX_VALUE - 8);
+    }
+
+    @Benchmark
+    public String regex() {
+        return new String(body).replaceAll(MASKING_PATTERN, MASK_TEMPLATE);
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return masker.mask(body);
+    }
+}
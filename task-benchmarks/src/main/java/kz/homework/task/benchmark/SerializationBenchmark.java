@@ -0,0 +1,67 @@
+package kz.homework.task.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link TaskResponse} lists as the controller writes them, with the mapper configured the
+ * way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<TaskResponse> tasks;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            TaskResponse taskResponse = new TaskResponse();
+            taskResponse.setId(i);
+            taskResponse.setTitle("Task " + i);
+            taskResponse.setDescription("Description of task " + i);
+            taskResponse.setStatus(Status.values()[i % Status.values().length]);
+            taskResponse.setCreatedAt(LocalDate.now().minusDays(i % 30));
+            taskResponse.setVersion(0L);
+            tasks.add(taskResponse);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTaskResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(tasks);
+    }
+}
@@ -0,0 +1,26 @@
+package kz.homework.task.benchmark;
+
+/**
+ * Task payloads shared by the logging benchmarks.
+ */
+final class TaskJson {
+
+    private TaskJson() {
+    }
+
+    /**
+     * @return JSON array of tasks with a {@code fileContents} field, at least {@code size} characters long
+     */
+    static String array(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size; i++) {
+            json.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Task ").append(i)
+                    .append("\",\"description\":\"Описание задачи ").append(i)
+                    .append("\",\"fileContents\":\"").append("QUJD".repeat(16))
+                    .append("\"},");
+        }
+        json.setCharAt(json.length() - 1, ']');
+        return json.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package kz.homework.task.benchmark;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying a {@link TaskRequest} into a {@link TaskResponse} by reflection through {@code BeanUtils.copyProperties},
+ * as {@code new TaskResponse(TaskRequest)} used to, against the constructor and the same copy written with setters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskResponseCopyBenchmark {
+
+    private final TaskRequest taskRequest = new TaskRequest("Task", "Description of the task", Status.IN_PROGRESS);
+
+    @Benchmark
+    public TaskResponse beanUtilsCopy() {
+        TaskResponse taskResponse = new TaskResponse();
+        BeanUtils.copyProperties(taskRequest, taskResponse);
+        return taskResponse;
+    }
+
+    @Benchmark
+    public TaskResponse constructorCopy() {
+        return new TaskResponse(taskRequest);
+    }
+
+    @Benchmark
+    public TaskResponse setterCopy() {
+        TaskResponse taskResponse = new TaskResponse();
+        taskResponse.setTitle(taskRequest.getTitle());
+        taskResponse.setDescription(taskRequest.getDescription());
+        taskResponse.setStatus(taskRequest.getStatus());
+        return taskResponse;
+    }
+}
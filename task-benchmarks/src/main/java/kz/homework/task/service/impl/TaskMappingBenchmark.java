@@ -0,0 +1,59 @@
+package kz.homework.task.service.impl;
+
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskMapper#toTaskResponses} over large lists. The mapper is package-private, the benchmark lives in its
+ * package to call it directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Task task = new Task();
+            task.setId(i);
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setStatus(Status.values()[i % Status.values().length]);
+            task.setCreatedAt(LocalDate.now().minusDays(i % 30));
+            task.setVersion(0L);
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public List<TaskResponse> mapToTaskResponseList() {
+        return TaskMapper.toTaskResponses(tasks);
+    }
+}
@@ -3,9 +3,16 @@ package kz.homework.task.exception;
 public enum ApiError {
     ARGUMENT_MISSING(400, "Body argument missing"),
     BAD_RESOURCE_ID(400, "Bad task id"),
+    BAD_CURSOR(400, "Bad pagination cursor"),
+    UNKNOWN_FIELD(400, "Unknown task field"),
+    PRECONDITION_FAILED(412, "Task has been modified"),
+    VERSION_CONFLICT(409, "Task has been modified by another request"),
+    IDEMPOTENCY_KEY_REUSED(422, "Idempotency key has been used with a different request"),
     RESOURCE_NOT_FOUND(404, "No task found"),
     BAD_REQUEST(400, "Bad Request"),
     INTERNAL_SERVER_ERROR(500, "Internal server error"),
+    CREATE_TIMED_OUT(503, "Task was not created in time, it is safe to retry"),
+    CREATE_OUTCOME_UNKNOWN(504, "Timed out while the task was being created, it may still have been created"),
     NOT_ALLOWED(405, "Method is not allowed");
 
     private final int status;
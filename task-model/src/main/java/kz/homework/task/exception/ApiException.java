@@ -20,6 +20,15 @@ public class ApiException extends RuntimeException {
         this.apiError = apiError;
     }
 
+    /**
+     * @param writableStackTrace {@code false} skips filling in the stack trace and disables suppressed exceptions
+     */
+    protected ApiException(ApiError apiError, ErrorResponse errorResponse, boolean writableStackTrace) {
+        super(apiError.name() + ": " + errorResponse.getDescription(), null, false, writableStackTrace);
+        this.errorResponse = errorResponse;
+        this.apiError = apiError;
+    }
+
     public void set(String key, Object value) {
         if (this.errorResponse.getData() == null) {
             this.errorResponse.setData(new HashMap<>());
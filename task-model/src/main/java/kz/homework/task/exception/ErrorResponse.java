@@ -4,11 +4,25 @@ package kz.homework.task.exception;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.Map;
 
 @Schema(description = "Represents an error response with details about the issue that occurred in the system.")
 public class ErrorResponse {
 
+    /**
+     * Origin of the errors raised by the task services.
+     */
+    public static final String TASKS_SERVICE = "tasks-service";
+
+    private static final Map<ApiError, ErrorResponse> TEMPLATES = new EnumMap<>(ApiError.class);
+
+    static {
+        for (ApiError apiError : ApiError.values()) {
+            TEMPLATES.put(apiError, new Template(apiError));
+        }
+    }
+
     @Schema(description = "A unique code representing the error.", example = "not_found")
     private String code;
 
@@ -34,6 +48,21 @@ public class ErrorResponse {
         this.timestamp = LocalDateTime.now();
     }
 
+    private ErrorResponse(String code, String description, String origin) {
+        this.code = code.toLowerCase();
+        this.description = description;
+        this.origin = origin;
+    }
+
+    /**
+     * Returns the shared response of {@code apiError} with its default message and {@link #TASKS_SERVICE} as the
+     * origin. It has no data, its timestamp is the time it is read, i.e. serialized, and its setters throw
+     * {@link UnsupportedOperationException}.
+     */
+    public static ErrorResponse template(ApiError apiError) {
+        return TEMPLATES.get(apiError);
+    }
+
     public String getCode() {
         return code;
     }
@@ -58,6 +87,10 @@ public class ErrorResponse {
         this.origin = origin;
     }
 
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
@@ -69,5 +102,44 @@ public class ErrorResponse {
     public void setData(Map<String, Object> data) {
         this.data = data;
     }
-}
 
+    private static final class Template extends ErrorResponse {
+
+        private Template(ApiError apiError) {
+            super(apiError.name(), apiError.getMessage(), TASKS_SERVICE);
+        }
+
+        @Override
+        public void setCode(String code) {
+            throw new UnsupportedOperationException("Error template is read-only");
+        }
+
+        @Override
+        public void setDescription(String description) {
+            throw new UnsupportedOperationException("Error template is read-only");
+        }
+
+        @Override
+        public void setOrigin(String origin) {
+            throw new UnsupportedOperationException("Error template is read-only");
+        }
+
+        /**
+         * The template is shared by all responses of its error, each one is stamped when it is written.
+         */
+        @Override
+        public LocalDateTime getTimestamp() {
+            return LocalDateTime.now();
+        }
+
+        @Override
+        public void setTimestamp(LocalDateTime timestamp) {
+            throw new UnsupportedOperationException("Error template is read-only");
+        }
+
+        @Override
+        public void setData(Map<String, Object> data) {
+            throw new UnsupportedOperationException("Error template is read-only");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package kz.homework.task.exception;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * {@link ApiException} for expected business errors such as a missing task, which are raised far more often than they
+ * need to be debugged. {@link #of(ApiError)} returns one preallocated instance per error without a stack trace that
+ * carries {@link ErrorResponse#template(ApiError)}, so throwing it allocates nothing. It cannot carry request-specific
+ * data, {@link #set(String, Object)} and {@link #setErrors(Map)} throw; use a plain {@link ApiException} for that.
+ */
+public final class StacklessApiException extends ApiException {
+    private static final long serialVersionUID = -2415719836002418950L;
+    private static final Map<ApiError, StacklessApiException> INSTANCES = new EnumMap<>(ApiError.class);
+
+    static {
+        for (ApiError apiError : ApiError.values()) {
+            INSTANCES.put(apiError, new StacklessApiException(apiError));
+        }
+    }
+
+    private StacklessApiException(ApiError apiError) {
+        super(apiError, ErrorResponse.template(apiError), false);
+    }
+
+    public static StacklessApiException of(ApiError apiError) {
+        return INSTANCES.get(apiError);
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        throw readOnly("data '" + key + "'");
+    }
+
+    @Override
+    public void setErrors(Map<String, Object> data) {
+        throw readOnly("errors");
+    }
+
+    private UnsupportedOperationException readOnly(String data) {
+        return new UnsupportedOperationException("Cannot attach " + data + " to the shared " + getApiError()
+                + " exception, throw a new ApiException instead");
+    }
+}
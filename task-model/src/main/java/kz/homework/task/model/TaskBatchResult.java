@@ -0,0 +1,44 @@
+package kz.homework.task.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import kz.homework.task.exception.ErrorResponse;
+import lombok.Getter;
+
+@Getter
+@Schema(description = "Outcome of a single item of a batch create request.")
+public class TaskBatchResult {
+
+    @Schema(description = "Position of the item in the request array", example = "0")
+    private final int index;
+
+    @Schema(description = "HTTP status of the item", example = "201")
+    private final int status;
+
+    @Schema(description = "The created task, present when the item was created")
+    private final TaskResponse task;
+
+    @Schema(description = "The error, present when the item was rejected")
+    private final ErrorResponse error;
+
+    /**
+     * Also used to read results back, e.g. stored responses of idempotent batch requests.
+     */
+    @JsonCreator
+    public TaskBatchResult(@JsonProperty("index") int index, @JsonProperty("status") int status,
+                           @JsonProperty("task") TaskResponse task, @JsonProperty("error") ErrorResponse error) {
+        this.index = index;
+        this.status = status;
+        this.task = task;
+        this.error = error;
+    }
+
+    public static TaskBatchResult created(int index, TaskResponse task) {
+        return new TaskBatchResult(index, 201, task, null);
+    }
+
+    public static TaskBatchResult rejected(int index, int status, ErrorResponse error) {
+        return new TaskBatchResult(index, status, null, error);
+    }
+}
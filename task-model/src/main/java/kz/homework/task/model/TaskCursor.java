@@ -0,0 +1,41 @@
+package kz.homework.task.model;
+
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last task of a page. Clients receive it as an opaque string and pass it back unchanged.
+ */
+public record TaskCursor(TaskSort sort, LocalDate createdAt, Integer id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + (createdAt == null ? "" : createdAt) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = raw.split("\\" + SEPARATOR, -1);
+            TaskSort cursorSort = TaskSort.valueOf(values[0]);
+            if (values.length != 3 || cursorSort != sort) {
+                throw new ApiException(ApiError.BAD_CURSOR);
+            }
+            LocalDate createdAt = values[1].isEmpty() ? null : LocalDate.parse(values[1]);
+            if (createdAt == null && (sort == TaskSort.CREATED_AT_ASC || sort == TaskSort.CREATED_AT_DESC)) {
+                // the keyset predicates compare against the date, without one they cannot position the page
+                throw new ApiException(ApiError.BAD_CURSOR);
+            }
+            return new TaskCursor(cursorSort, createdAt, Integer.valueOf(values[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ApiException(ApiError.BAD_CURSOR);
+        }
+    }
+}
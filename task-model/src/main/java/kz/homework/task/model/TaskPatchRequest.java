@@ -0,0 +1,34 @@
+package kz.homework.task.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "DTO for a partial task update. Only the fields that are present are changed.")
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskPatchRequest {
+
+    @Size(min = 1, max = 255)
+    @Pattern(regexp = "(?s).*\\S.*", message = "must not be blank")
+    @Schema(description = "The new title of the task", example = "Task Title", maxLength = 255)
+    private String title;
+
+    @Size(max = 1000)
+    @Schema(description = "The new description of the task", example = "This is a description of the task.", maxLength = 1000)
+    private String description;
+
+    @Schema(description = "The new status of the task", example = "DONE")
+    private Status status;
+
+    @NotNull
+    @Schema(description = "The version of the task the change is based on, as returned in the ETag header", example = "0")
+    private Long version;
+}
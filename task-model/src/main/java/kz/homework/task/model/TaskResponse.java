@@ -1,10 +1,10 @@
 package kz.homework.task.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.springframework.beans.BeanUtils;
 
 import java.time.LocalDate;
 
@@ -20,8 +20,15 @@ public class TaskResponse extends TaskRequest {
     @Schema(description = "Creation date")
     private LocalDate createdAt;
 
-    public TaskResponse(TaskRequest taskResponse) {
-        BeanUtils.copyProperties(taskResponse, this);
+    /**
+     * Version of the task, sent as the ETag header rather than in the body.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
+
+    public TaskResponse(TaskRequest taskRequest) {
+        super(taskRequest.getTitle(), taskRequest.getDescription(), taskRequest.getStatus());
     }
 }
 
@@ -0,0 +1,8 @@
+package kz.homework.task.model;
+
+public enum TaskSort {
+    ID_ASC,
+    ID_DESC,
+    CREATED_AT_ASC,
+    CREATED_AT_DESC
+}
@@ -0,0 +1,178 @@
+package kz.homework.task.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskPatchRequest;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
+import kz.homework.task.reactive.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The {@code /api/v1/tasks} API of task-service on WebFlux. Bulk status changes, bulk deletes, sparse fieldsets and
+ * {@code /export} are not provided; {@code /filter} streams instead, as a JSON array or as newline-delimited JSON when
+ * {@code application/x-ndjson} is accepted.
+ */
+@RestController
+@RequestMapping("/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final TaskService taskService;
+
+    @Operation(summary = "Create a task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping
+    public Mono<ResponseEntity<TaskResponse>> createTask(@Valid @RequestBody TaskRequest taskRequest) {
+        return taskService.createTask(taskRequest)
+                .map(newTask -> ResponseEntity.status(HttpStatus.CREATED).body(newTask));
+    }
+
+    @Operation(summary = "Create tasks in batch", description = "Creates every valid task of the array in one transaction. Returns 201 when all items were created and 207 with per-item results otherwise.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "207", description = "Some of the items were rejected"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<TaskBatchResult>>> createTasks(@RequestBody @Size(min = 1, max = 1000, message = "Batch must contain from 1 to 1000 tasks.") List<TaskRequest> taskRequests) {
+        return taskService.createTasks(taskRequests).map(results -> {
+            boolean allCreated = results.stream().allMatch(result -> result.getTask() != null);
+            return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+        });
+    }
+
+    @Operation(summary = "Get list of tasks", description = "Streams one page of tasks. The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/filter", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<TaskResponse>>> getAllTasks(@RequestParam(required = false) Status status,
+                                                                @RequestParam(required = false) LocalDate createdAt,
+                                                                @RequestParam(defaultValue = "ID_ASC") TaskSort sort,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be greater than or equal to 1.") @Max(value = 1000, message = "Limit must be less than or equal to 1000.") Integer limit) {
+        return taskService.getTasks(status, createdAt, sort, cursor, limit).map(page -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (page.next() != null) {
+                headers.set(NEXT_CURSOR_HEADER, page.next());
+            }
+            return ResponseEntity.ok().headers(headers).body(page.items());
+        });
+    }
+
+    @Operation(summary = "Get task by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "304", description = "Task has not changed since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}")
+    public Mono<TaskResponse> getTaskById(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id,
+                                          ServerWebExchange exchange) {
+        return taskService.getTaskById(id)
+                .filter(taskResponse -> !exchange.checkNotModified(String.valueOf(taskResponse.getVersion())));
+    }
+
+    @Operation(summary = "Update a task", description = "When If-Match is sent the task is updated only if its ETag still matches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "412", description = "Task has been modified since the ETag in If-Match", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task has been modified by a concurrent request", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TaskResponse>> updateTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id, @Valid @RequestBody TaskRequest taskRequest,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return taskService.updateTask(id, taskRequest, toVersion(ifMatch))
+                .map(taskResponse -> ResponseEntity.ok().eTag(String.valueOf(taskResponse.getVersion())).body(taskResponse));
+    }
+
+    @Operation(summary = "Partially update a task", description = "Changes only the fields present in the body, provided the task is still at the given version.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task has been modified since the given version", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<TaskResponse>> patchTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id, @Valid @RequestBody TaskPatchRequest taskPatchRequest) {
+        return taskService.patchTask(id, taskPatchRequest)
+                .map(taskResponse -> ResponseEntity.ok().eTag(String.valueOf(taskResponse.getVersion())).body(taskResponse));
+    }
+
+    @Operation(summary = "Delete a task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id) {
+        return taskService.deleteTask(id);
+    }
+
+    /**
+     * Reads the task version from an If-Match header, {@code null} when any version is acceptable.
+     */
+    private static Long toVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw StacklessApiException.of(ApiError.PRECONDITION_FAILED);
+        }
+    }
+}
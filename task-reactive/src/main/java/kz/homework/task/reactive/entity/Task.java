@@ -0,0 +1,34 @@
+package kz.homework.task.reactive.entity;
+
+import kz.homework.task.model.Status;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Row of the {@code tasks} table, created by {@code schema.sql}. Its column types and indexes follow the Flyway
+ * migrations of task-service, but the id is an identity column instead of being drawn from {@code tasks_seq}.
+ */
+@Getter
+@Setter
+@Table("tasks")
+public class Task {
+
+    @Id
+    private Integer id;
+
+    private String title;
+
+    private String description;
+
+    private Status status = Status.NEW;
+
+    private LocalDate createdAt;
+
+    @Version
+    private Long version;
+}
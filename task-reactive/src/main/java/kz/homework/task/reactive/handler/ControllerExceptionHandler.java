@@ -0,0 +1,185 @@
+package kz.homework.task.reactive.handler;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.server.MethodNotAllowedException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Maps the WebFlux exceptions to the same {@link ErrorResponse} bodies and statuses as task-service.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ControllerExceptionHandler {
+
+    private static final String TASKS_SERVICE = ErrorResponse.TASKS_SERVICE;
+    private static final String INVALID_VALUE = "Invalid value: '%s'";
+
+    private final Map<ApiError, ResponseEntity<ErrorResponse>> templateResponses = new EnumMap<>(ApiError.class);
+
+    public ControllerExceptionHandler() {
+        for (ApiError error : ApiError.values()) {
+            templateResponses.put(error, new ResponseEntity<>(ErrorResponse.template(error), HttpStatus.valueOf(error.getStatus())));
+        }
+    }
+
+    @ExceptionHandler({ApiException.class})
+    public ResponseEntity<ErrorResponse> handleApiExceptions(ApiException exception) {
+        ApiError apiError = exception.getApiError();
+        if (exception instanceof StacklessApiException) {
+            log.warn("Expected error: {}", apiError);
+            return templateResponses.get(apiError);
+        }
+        log.error(exception.getLocalizedMessage());
+
+        ErrorResponse errorResponse = exception.getErrorResponse();
+
+        if (errorResponse.getOrigin() == null || errorResponse.getOrigin().isEmpty()) {
+            errorResponse.setOrigin(TASKS_SERVICE);
+        }
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(apiError.getStatus()));
+    }
+
+    @ExceptionHandler({WebExchangeBindException.class})
+    public ResponseEntity<ErrorResponse> handleBindException(WebExchangeBindException exception) {
+        log.warn(exception.getLocalizedMessage());
+        Map<String, Object> errors = new HashMap<>();
+        for (ObjectError error : exception.getBindingResult().getAllErrors()) {
+            if (error instanceof FieldError fieldError) {
+                errors.put(fieldError.getField(), Optional.ofNullable(fieldError.getDefaultMessage())
+                        .orElse(String.format(INVALID_VALUE, fieldError.getRejectedValue())));
+            } else {
+                errors.put(error.getCode(), error.getDefaultMessage());
+            }
+        }
+        return getErrorResponse(errors);
+    }
+
+    @ExceptionHandler({HandlerMethodValidationException.class})
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidationException(HandlerMethodValidationException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.BAD_REQUEST;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getReason());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    @ExceptionHandler({MissingRequestValueException.class})
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingRequestValueException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.ARGUMENT_MISSING;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getReason());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    /**
+     * Unreadable bodies and parameters that cannot be converted, told apart by the cause.
+     */
+    @ExceptionHandler({ServerWebInputException.class})
+    public ResponseEntity<ErrorResponse> handleInputException(ServerWebInputException exception) {
+        log.warn(exception.getLocalizedMessage());
+        if (exception.getCause() instanceof TypeMismatchException typeMismatch) {
+            Map<String, Object> errors = new HashMap<>();
+            String name = exception.getMethodParameter() == null ? typeMismatch.getPropertyName() : exception.getMethodParameter().getParameterName();
+            errors.put(Objects.requireNonNullElse(name, "value"), String.format(INVALID_VALUE, typeMismatch.getValue()));
+            return getErrorResponse(errors);
+        }
+
+        ApiError error = ApiError.BAD_REQUEST;
+        ErrorResponse errorResponse;
+        if (exception.getCause() instanceof DecodingException decodingException
+                && decodingException.getCause() instanceof JsonMappingException jsonMappingException
+                && !jsonMappingException.getPath().isEmpty()) {
+            String invalidDataFieldNames = jsonMappingException.getPath().stream().map(JsonMappingException.Reference::getFieldName).filter(Objects::nonNull).collect(Collectors.joining("."));
+            errorResponse = new ErrorResponse(error.name(), String.format("invalid value for a field: '%s'", invalidDataFieldNames));
+        } else {
+            errorResponse = new ErrorResponse(error.name(), exception.getReason());
+        }
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.VERSION_CONFLICT;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), error.getMessage());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    @ExceptionHandler({NoResourceFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNoResourceError(NoResourceFoundException exception) {
+        ApiError error = ApiError.RESOURCE_NOT_FOUND;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getMessage());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    @ExceptionHandler({MethodNotAllowedException.class})
+    public ResponseEntity<ErrorResponse> handleWrongMethodError(MethodNotAllowedException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.NOT_ALLOWED;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getMessage());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    @ExceptionHandler({Exception.class})
+    public ResponseEntity<ErrorResponse> handleInterServerError(Exception exception) {
+        log.error(exception.getLocalizedMessage(), exception);
+        ApiError error = ApiError.INTERNAL_SERVER_ERROR;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), "server error");
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+    }
+
+    private ResponseEntity<ErrorResponse> getErrorResponse(Map<String, Object> errors) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setData(errors);
+        errorResponse.setCode(ApiError.BAD_REQUEST.name());
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setDescription("invalid data");
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,12 @@
+package kz.homework.task.reactive.model;
+
+import kz.homework.task.model.TaskResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Page of tasks whose items are streamed from the database as the client reads them.
+ *
+ * @param next opaque cursor of the next page or {@code null} when the last page has been reached
+ */
+public record TaskPageStream(Flux<TaskResponse> items, String next) {
+}
@@ -0,0 +1,77 @@
+package kz.homework.task.reactive.repository;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskSort;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.query.Criteria;
+
+import java.time.LocalDate;
+
+/**
+ * Counterpart of task-service's {@code TaskSpecifications} for {@link org.springframework.data.r2dbc.core.R2dbcEntityTemplate}
+ * queries.
+ */
+public final class TaskCriteria {
+
+    private static final String ID = "id";
+    private static final String STATUS = "status";
+    private static final String CREATED_AT = "createdAt";
+
+    private TaskCriteria() {
+    }
+
+    public static Criteria filter(Status status, LocalDate createdAt) {
+        Criteria criteria = Criteria.empty();
+        if (status != null) {
+            criteria = criteria.and(STATUS).is(status);
+        }
+        if (createdAt != null) {
+            criteria = criteria.and(CREATED_AT).is(createdAt);
+        }
+        return criteria;
+    }
+
+    /**
+     * Keyset predicate selecting the tasks that follow the cursor position in its sort order.
+     */
+    public static Criteria after(TaskCursor cursor) {
+        if (cursor == null) {
+            return Criteria.empty();
+        }
+        return switch (cursor.sort()) {
+            case ID_ASC -> Criteria.where(ID).greaterThan(cursor.id());
+            case ID_DESC -> Criteria.where(ID).lessThan(cursor.id());
+            case CREATED_AT_ASC -> Criteria.where(CREATED_AT).greaterThan(cursor.createdAt())
+                    .or(Criteria.where(CREATED_AT).is(cursor.createdAt()).and(ID).greaterThan(cursor.id()));
+            case CREATED_AT_DESC -> Criteria.where(CREATED_AT).lessThan(cursor.createdAt())
+                    .or(Criteria.where(CREATED_AT).is(cursor.createdAt()).and(ID).lessThan(cursor.id()));
+        };
+    }
+
+    /**
+     * Keyset predicate selecting the tasks up to and including the cursor position in its sort order.
+     */
+    public static Criteria notAfter(TaskCursor cursor) {
+        if (cursor == null) {
+            return Criteria.empty();
+        }
+        return switch (cursor.sort()) {
+            case ID_ASC -> Criteria.where(ID).lessThanOrEquals(cursor.id());
+            case ID_DESC -> Criteria.where(ID).greaterThanOrEquals(cursor.id());
+            case CREATED_AT_ASC -> Criteria.where(CREATED_AT).lessThan(cursor.createdAt())
+                    .or(Criteria.where(CREATED_AT).is(cursor.createdAt()).and(ID).lessThanOrEquals(cursor.id()));
+            case CREATED_AT_DESC -> Criteria.where(CREATED_AT).greaterThan(cursor.createdAt())
+                    .or(Criteria.where(CREATED_AT).is(cursor.createdAt()).and(ID).greaterThanOrEquals(cursor.id()));
+        };
+    }
+
+    public static Sort orderBy(TaskSort sort) {
+        return switch (sort) {
+            case ID_ASC -> Sort.by(Sort.Direction.ASC, ID);
+            case ID_DESC -> Sort.by(Sort.Direction.DESC, ID);
+            case CREATED_AT_ASC -> Sort.by(Sort.Direction.ASC, CREATED_AT, ID);
+            case CREATED_AT_DESC -> Sort.by(Sort.Direction.DESC, CREATED_AT, ID);
+        };
+    }
+}
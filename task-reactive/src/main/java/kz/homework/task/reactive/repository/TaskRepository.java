@@ -0,0 +1,20 @@
+package kz.homework.task.reactive.repository;
+
+import kz.homework.task.reactive.entity.Task;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface TaskRepository extends R2dbcRepository<Task, Integer> {
+
+    /**
+     * Sets the non-null arguments in one statement if the task is still at {@code version}.
+     *
+     * @return 1 when the task was changed, 0 when it does not exist or has another version
+     */
+    @Modifying
+    @Query("update tasks set title = coalesce(:title, title), description = coalesce(:description, description), "
+            + "status = coalesce(:status, status), version = version + 1 where id = :id and version = :version")
+    Mono<Integer> patch(Integer id, Long version, String title, String description, String status);
+}
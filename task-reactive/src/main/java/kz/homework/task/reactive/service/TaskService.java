@@ -0,0 +1,48 @@
+package kz.homework.task.reactive.service;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskPatchRequest;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
+import kz.homework.task.reactive.model.TaskPageStream;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of task-service's {@code TaskService}, with the same rules and errors.
+ */
+public interface TaskService {
+
+    Mono<TaskResponse> createTask(TaskRequest taskRequest);
+
+    /**
+     * Creates every valid task of the batch in one transaction. Invalid items are reported per index and do not
+     * prevent the others from being created.
+     */
+    Mono<List<TaskBatchResult>> createTasks(List<TaskRequest> taskRequests);
+
+    /**
+     * One page of tasks. The position of the last task is found first with a two-row query, so the next cursor is
+     * known before the items are streamed and the page is never collected in memory.
+     */
+    Mono<TaskPageStream> getTasks(Status status, LocalDate createdAt, TaskSort sort, String cursor, int limit);
+
+    Mono<TaskResponse> getTaskById(Integer id);
+
+    /**
+     * @param expectedVersion version from an If-Match header, {@code null} to update any version
+     */
+    Mono<TaskResponse> updateTask(Integer id, TaskRequest taskRequest, Long expectedVersion);
+
+    /**
+     * Applies the non-null fields of the request in one statement, provided the task is still at the version the
+     * request is based on.
+     */
+    Mono<TaskResponse> patchTask(Integer id, TaskPatchRequest taskPatchRequest);
+
+    Mono<Void> deleteTask(Integer id);
+}
@@ -0,0 +1,224 @@
+package kz.homework.task.reactive.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskPatchRequest;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
+import kz.homework.task.reactive.entity.Task;
+import kz.homework.task.reactive.model.TaskPageStream;
+import kz.homework.task.reactive.repository.TaskRepository;
+import kz.homework.task.reactive.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static kz.homework.task.reactive.repository.TaskCriteria.after;
+import static kz.homework.task.reactive.repository.TaskCriteria.filter;
+import static kz.homework.task.reactive.repository.TaskCriteria.notAfter;
+import static kz.homework.task.reactive.repository.TaskCriteria.orderBy;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskServiceImpl implements TaskService {
+
+    private final TaskRepository taskRepository;
+    private final R2dbcEntityTemplate template;
+    private final Validator validator;
+
+    public Mono<TaskResponse> createTask(TaskRequest createTaskRequest) {
+        log.info("Creating task with title: {}", createTaskRequest.getTitle());
+        return taskRepository.save(toTask(createTaskRequest))
+                .map(this::mapToTaskResponse)
+                .doOnNext(taskResponse -> log.info("Task created with title \"{}\" created with ID: {}", taskResponse.getTitle(), taskResponse.getId()));
+    }
+
+    @Transactional
+    public Mono<List<TaskBatchResult>> createTasks(List<TaskRequest> taskRequests) {
+        log.info("Creating batch of {} tasks", taskRequests.size());
+        TaskBatchResult[] results = new TaskBatchResult[taskRequests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskRequests.size(); i++) {
+            TaskRequest taskRequest = taskRequests.get(i);
+            Map<String, Object> errors = validate(taskRequest);
+            if (!errors.isEmpty()) {
+                ErrorResponse errorResponse = new ErrorResponse(ApiError.BAD_REQUEST.name(), "invalid data");
+                errorResponse.setData(errors);
+                results[i] = TaskBatchResult.rejected(i, ApiError.BAD_REQUEST.getStatus(), errorResponse);
+                continue;
+            }
+            indexes.add(i);
+            tasks.add(toTask(taskRequest));
+        }
+
+        // saveAll inserts in order, so the n-th saved task belongs to the n-th valid item
+        return taskRepository.saveAll(tasks)
+                .index()
+                .doOnNext(saved -> {
+                    int index = indexes.get(saved.getT1().intValue());
+                    results[index] = TaskBatchResult.created(index, mapToTaskResponse(saved.getT2()));
+                })
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Batch created {} of {} tasks", tasks.size(), taskRequests.size());
+                    return List.of(results);
+                }));
+    }
+
+    private Map<String, Object> validate(TaskRequest taskRequest) {
+        Map<String, Object> errors = new HashMap<>();
+        if (taskRequest == null) {
+            errors.put("task", "must not be null");
+            return errors;
+        }
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(taskRequest);
+        for (ConstraintViolation<TaskRequest> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    public Mono<TaskPageStream> getTasks(Status status, LocalDate createdAt, TaskSort sort, String cursor, int limit) {
+        log.info("Fetching tasks with status: {}, createdAt: {}, sort: {} and limit: {}", status, createdAt, sort, limit);
+        TaskCursor position = cursor == null ? null : TaskCursor.decode(cursor, sort);
+        Criteria criteria = and(filter(status, createdAt), after(position));
+        // the last task of the page and the one after it, a second row means there is a next page
+        return template.select(Task.class)
+                .matching(Query.query(criteria).columns("id", "createdAt").sort(orderBy(sort)).offset(limit - 1).limit(2))
+                .all()
+                .collectList()
+                .map(lastRows -> {
+                    if (lastRows.size() < 2) {
+                        return new TaskPageStream(findTasks(criteria, sort, limit), null);
+                    }
+                    Task last = lastRows.getFirst();
+                    TaskCursor next = new TaskCursor(sort, last.getCreatedAt(), last.getId());
+                    // bounded by the last task, so a task inserted meanwhile cannot shift the page past the cursor
+                    return new TaskPageStream(findTasks(and(criteria, notAfter(next)), sort, limit), next.encode());
+                });
+    }
+
+    private Flux<TaskResponse> findTasks(Criteria criteria, TaskSort sort, int limit) {
+        return template.select(Task.class)
+                .matching(Query.query(criteria).sort(orderBy(sort)).limit(limit))
+                .all()
+                .map(this::mapToTaskResponse);
+    }
+
+    private static Criteria and(Criteria criteria, Criteria other) {
+        if (other.isEmpty()) {
+            return criteria;
+        }
+        return criteria.isEmpty() ? other : criteria.and(other);
+    }
+
+    public Mono<TaskResponse> getTaskById(Integer id) {
+        log.info("Fetching task with ID: {}", id);
+        return findTask(id).map(this::mapToTaskResponse);
+    }
+
+    private Mono<Task> findTask(Integer id) {
+        return taskRepository.findById(id)
+                .switchIfEmpty(Mono.error(StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND)));
+    }
+
+    public Mono<TaskResponse> updateTask(Integer id, TaskRequest taskRequest, Long expectedVersion) {
+        log.info("Updating task with ID: {}", id);
+        return findTask(id)
+                .flatMap(task -> {
+                    if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+                        log.warn("Task with ID: {} has version {}, expected {}", id, task.getVersion(), expectedVersion);
+                        return Mono.error(StacklessApiException.of(ApiError.PRECONDITION_FAILED));
+                    }
+                    task.setTitle(taskRequest.getTitle());
+                    task.setDescription(taskRequest.getDescription());
+                    task.setStatus(taskRequest.getStatus());
+                    // a concurrent update between the read and the write fails the version check of the save
+                    return taskRepository.save(task);
+                })
+                .map(this::mapToTaskResponse)
+                .doOnNext(taskResponse -> log.info("Task with ID: {} updated successfully", id));
+    }
+
+    @Transactional
+    public Mono<TaskResponse> patchTask(Integer id, TaskPatchRequest taskPatchRequest) {
+        log.info("Patching task with ID: {} at version {}", id, taskPatchRequest.getVersion());
+        Status status = taskPatchRequest.getStatus();
+        return taskRepository.patch(id, taskPatchRequest.getVersion(), taskPatchRequest.getTitle(),
+                        taskPatchRequest.getDescription(), status == null ? null : status.name())
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return findTask(id);
+                    }
+                    // only the failure path pays for telling a missing task from a stale version
+                    return taskRepository.existsById(id).flatMap(exists -> {
+                        if (!exists) {
+                            return Mono.error(StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND));
+                        }
+                        log.warn("Task with ID: {} is no longer at version {}", id, taskPatchRequest.getVersion());
+                        return Mono.error(StacklessApiException.of(ApiError.VERSION_CONFLICT));
+                    });
+                })
+                .map(this::mapToTaskResponse)
+                .doOnNext(taskResponse -> log.info("Task with ID: {} patched to version {}", id, taskResponse.getVersion()));
+    }
+
+    public Mono<Void> deleteTask(Integer id) {
+        log.info("Deleting task with ID: {}", id);
+        // the row count of the delete tells a missing task apart, no read is needed
+        return template.delete(Task.class)
+                .matching(Query.query(Criteria.where("id").is(id)))
+                .all()
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        log.error("Task with ID: {} not found", id);
+                        return Mono.error(StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND));
+                    }
+                    log.info("Task with ID: {} deleted successfully", id);
+                    return Mono.empty();
+                });
+    }
+
+    private static Task toTask(TaskRequest taskRequest) {
+        Task task = new Task();
+        task.setTitle(taskRequest.getTitle());
+        task.setDescription(taskRequest.getDescription());
+        if (taskRequest.getStatus() != null) {
+            task.setStatus(taskRequest.getStatus());
+        }
+        task.setCreatedAt(LocalDate.now());
+        return task;
+    }
+
+    private TaskResponse mapToTaskResponse(Task task) {
+        TaskResponse taskResponse = new TaskResponse();
+        taskResponse.setId(task.getId());
+        taskResponse.setTitle(task.getTitle());
+        taskResponse.setDescription(task.getDescription());
+        taskResponse.setStatus(task.getStatus());
+        taskResponse.setCreatedAt(task.getCreatedAt());
+        taskResponse.setVersion(task.getVersion());
+        return taskResponse;
+    }
+}
@@ -0,0 +1,14 @@
+-- columns and indexes of task-service's db/migration scripts, keep both in step; only the id differs, it is an
+-- identity column because R2DBC cannot draw ids from tasks_seq
+create table if not exists tasks (
+    id integer generated by default as identity primary key,
+    title varchar(255),
+    description varchar(1000),
+    status varchar(255) not null,
+    created_at date not null,
+    version bigint not null
+);
+
+create index if not exists idx_tasks_status_id on tasks (status, id);
+create index if not exists idx_tasks_created_at_id on tasks (created_at, id);
+create index if not exists idx_tasks_status_created_at_id on tasks (status, created_at, id);
@@ -0,0 +1,213 @@
+package kz.homework.task.reactive;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class TaskControllerTest {
+
+    private static final String TASKS = "/api/v1/tasks";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void createTask_ShouldReturnCreatedTask_AndGetShouldHonourETag() {
+        TaskResponse created = create(new TaskRequest("Reactive task", "Description", Status.IN_PROGRESS));
+
+        assertNotNull(created.getId());
+        assertEquals(Status.IN_PROGRESS, created.getStatus());
+        webTestClient.get().uri(TASKS + "/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Reactive task");
+        webTestClient.get().uri(TASKS + "/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void createTask_ShouldReturnErrorResponse_WhenTitleIsBlank() {
+        webTestClient.post().uri(TASKS)
+                .bodyValue(new TaskRequest(" ", null, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.description").isEqualTo("invalid data")
+                .jsonPath("$.data.title").isEqualTo("must not be blank");
+    }
+
+    @Test
+    void createTasks_ShouldReportRejectedItems() {
+        webTestClient.post().uri(TASKS + "/batch")
+                .bodyValue(List.of(new TaskRequest("First", null, null), new TaskRequest("", null, null)))
+                .exchange()
+                .expectStatus().isEqualTo(207)
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(201)
+                .jsonPath("$[0].task.title").isEqualTo("First")
+                .jsonPath("$[1].status").isEqualTo(400)
+                .jsonPath("$[1].error.code").isEqualTo("bad_request");
+    }
+
+    @Test
+    void getAllTasks_ShouldPageThroughTasksWithCursors() {
+        for (int i = 0; i < 5; i++) {
+            create(new TaskRequest("Paged " + i, null, Status.DONE));
+        }
+
+        List<Integer> byIdDesc = pageThrough("ID_DESC");
+        assertEquals(byIdDesc.stream().sorted((a, b) -> b - a).toList(), byIdDesc);
+        // all tasks are created today, so the keyset of the date sort falls through to the id
+        assertEquals(byIdDesc.reversed(), pageThrough("CREATED_AT_ASC"));
+    }
+
+    /**
+     * @return ids of the DONE tasks read two at a time, checked against reading them in one page
+     */
+    private List<Integer> pageThrough(String sort) {
+        List<Integer> all = ids(webTestClient.get().uri(TASKS + "/filter?status=DONE&sort=" + sort + "&limit=1000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
+                .expectBodyList(TaskResponse.class).returnResult());
+
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            String uri = TASKS + "/filter?status=DONE&sort=" + sort + "&limit=2" + (cursor == null ? "" : "&cursor=" + cursor);
+            EntityExchangeResult<List<TaskResponse>> page = webTestClient.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBodyList(TaskResponse.class).returnResult();
+            paged.addAll(ids(page));
+            cursor = page.getResponseHeaders().getFirst("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertEquals(all, paged);
+        return paged;
+    }
+
+    @Test
+    void getAllTasks_ShouldStreamNdjson() {
+        create(new TaskRequest("Streamed", null, Status.NEW));
+
+        List<TaskResponse> tasks = webTestClient.get().uri(TASKS + "/filter?status=NEW&limit=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void getAllTasks_ShouldRejectBadCursorAndLimit() {
+        webTestClient.get().uri(TASKS + "/filter?cursor=bm90LWEtY3Vyc29y")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("bad_cursor");
+        webTestClient.get().uri(TASKS + "/filter?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("bad_request");
+        webTestClient.get().uri(TASKS + "/filter?status=LOST")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.data.status").isEqualTo("Invalid value: 'LOST'");
+    }
+
+    @Test
+    void getTaskById_ShouldReturnNotFound_WhenTaskIsMissing() {
+        webTestClient.get().uri(TASKS + "/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("resource_not_found")
+                .jsonPath("$.origin").isEqualTo("tasks-service");
+    }
+
+    @Test
+    void updateTask_ShouldFailPrecondition_WhenIfMatchIsStale() {
+        TaskResponse created = create(new TaskRequest("Versioned", null, null));
+
+        webTestClient.put().uri(TASKS + "/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new TaskRequest("Updated", null, Status.DONE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        webTestClient.put().uri(TASKS + "/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new TaskRequest("Lost update", null, Status.DONE))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.code").isEqualTo("precondition_failed");
+    }
+
+    @Test
+    void patchTask_ShouldChangeGivenFields_AndConflictOnStaleVersion() {
+        TaskResponse created = create(new TaskRequest("Patched", "Kept", null));
+
+        webTestClient.patch().uri(TASKS + "/{id}", created.getId())
+                .bodyValue(Map.of("status", "DONE", "version", 0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("DONE")
+                .jsonPath("$.description").isEqualTo("Kept");
+        webTestClient.patch().uri(TASKS + "/{id}", created.getId())
+                .bodyValue(Map.of("title", "Stale", "version", 0))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.code").isEqualTo("version_conflict");
+    }
+
+    @Test
+    void deleteTask_ShouldRemoveTask_AndReturnNotFoundAfterwards() {
+        TaskResponse created = create(new TaskRequest("Deleted", null, null));
+
+        webTestClient.delete().uri(TASKS + "/{id}", created.getId()).exchange().expectStatus().isOk();
+        webTestClient.delete().uri(TASKS + "/{id}", created.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    private TaskResponse create(TaskRequest taskRequest) {
+        return webTestClient.post().uri(TASKS)
+                .bodyValue(taskRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(TaskResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private static List<Integer> ids(EntityExchangeResult<List<TaskResponse>> result) {
+        List<TaskResponse> tasks = result.getResponseBody();
+        assertNotNull(tasks);
+        return tasks.stream().map(TaskResponse::getId).toList();
+    }
+}
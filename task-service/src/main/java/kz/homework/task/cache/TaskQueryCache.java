@@ -0,0 +1,229 @@
+package kz.homework.task.cache;
+
+import kz.homework.task.config.CacheConfig;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskField;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskSort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of mapped {@code /filter} pages. Every {@code (status, createdAt)} filter has a version that is part of the
+ * cache key, a write bumps the versions of the filters it can affect and leaves the others warm. Outdated entries
+ * are never read again and age out of the underlying cache.
+ * <p>
+ * Versions are only tracked for filters that were written to, so reading arbitrary dates does not grow the map. A
+ * write with a known status and date bumps the few filters that can contain the task; a write to all dates of a status
+ * bumps a generation per status instead, which covers dates nobody wrote to.
+ * <p>
+ * Every bump draws a new value from one sequence, so a version is never handed out twice. A tracked version unused for
+ * {@link TaskQueryCacheProperties#getVersionTtl()} is dropped and raises the floor that untracked filters report to at
+ * least its value; a dropped filter therefore never returns to a version, and an ETag, it had before a write.
+ */
+@Slf4j
+@Component
+public class TaskQueryCache {
+
+    private static final Status[] STATUSES = Status.values();
+    /**
+     * Generation slot of filters on any status.
+     */
+    private static final int ANY_STATUS = STATUSES.length;
+
+    /**
+     * Distinguishes the versions of this instance from those handed out before a restart.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Cache cache;
+    private final long versionTtl;
+    private final ConcurrentMap<Filter, Version> versions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * Highest value of a dropped version, reported by every filter without a tracked one.
+     */
+    private final AtomicLong floor = new AtomicLong();
+    private final AtomicLong nextSweep;
+    private final AtomicLongArray generations = new AtomicLongArray(STATUSES.length + 1);
+
+    public TaskQueryCache(CacheManager cacheManager, TaskQueryCacheProperties properties) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TASK_PAGES_CACHE));
+        this.versionTtl = properties.getVersionTtl().toNanos();
+        this.nextSweep = new AtomicLong(System.nanoTime() + versionTtl);
+    }
+
+    /**
+     * @param fields requested sparse fieldset or {@code null} for full {@link kz.homework.task.model.TaskResponse} pages
+     */
+    public <T> TaskPage<T> get(Status status, LocalDate createdAt, TaskSort sort, TaskCursor cursor, int limit,
+                               Set<TaskField> fields, Supplier<TaskPage<T>> loader) {
+        Filter filter = new Filter(status, createdAt);
+        Key key = new Key(filter, generation(filter), version(filter), sort, cursor, limit, fields);
+        @SuppressWarnings("unchecked")
+        TaskPage<T> page = cache.get(key, TaskPage.class);
+        if (page == null) {
+            // loaded outside the cache's lock, concurrent misses may query twice but never wait on each other
+            page = loader.get();
+            cache.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * @return tag that changes whenever a task matching the filter is written, usable as a strong ETag
+     */
+    public String tag(Status status, LocalDate createdAt) {
+        Filter filter = new Filter(status, createdAt);
+        return epoch + "-" + generation(filter) + "-" + version(filter);
+    }
+
+    /**
+     * @return prefix of the tags of this instance, for other tags that must not repeat after a restart
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Invalidates every filter that can contain a task with the given status and creation date. A {@code null}
+     * argument stands for any value, e.g. a bulk update of all dates.
+     */
+    public void invalidate(Status status, LocalDate createdAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // bumping before commit would let a concurrent reader cache the old rows under the new version
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(status, createdAt);
+                }
+            });
+        } else {
+            bump(status, createdAt);
+        }
+    }
+
+    /**
+     * @return number of filters with a tracked version
+     */
+    public int getVersionCount() {
+        return versions.size();
+    }
+
+    private void bump(Status status, LocalDate createdAt) {
+        if (createdAt == null) {
+            // the dates are unbounded, every filter on the status and on any status moves to a new generation
+            if (status == null) {
+                for (int i = 0; i < generations.length(); i++) {
+                    generations.incrementAndGet(i);
+                }
+            } else {
+                generations.incrementAndGet(status.ordinal());
+                generations.incrementAndGet(ANY_STATUS);
+            }
+        } else {
+            long now = System.nanoTime();
+            for (Filter filter : affected(status, createdAt)) {
+                versions.put(filter, new Version(sequence.incrementAndGet(), now));
+            }
+            sweepIfDue(now);
+        }
+        log.debug("Invalidated task pages with status: {} and createdAt: {}", status, createdAt);
+    }
+
+    /**
+     * Drops the versions unused for the version TTL, at most every half TTL and on the writing thread.
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + versionTtl / 2)) {
+            return;
+        }
+        versions.forEach((filter, version) -> {
+            if (version.isIdle(now, versionTtl)) {
+                versions.computeIfPresent(filter, (key, current) -> {
+                    if (!current.isIdle(now, versionTtl)) {
+                        return current;
+                    }
+                    // raised before the entry disappears, a reader that misses it already sees the higher floor
+                    floor.accumulateAndGet(current.value(), Math::max);
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Filters that can contain a task with the given creation date and status, any status for {@code null}.
+     */
+    private static List<Filter> affected(Status status, LocalDate createdAt) {
+        List<Filter> filters = new ArrayList<>(2 * (STATUSES.length + 1));
+        filters.add(new Filter(null, createdAt));
+        filters.add(new Filter(null, null));
+        for (Status filterStatus : STATUSES) {
+            if (status == null || status == filterStatus) {
+                filters.add(new Filter(filterStatus, createdAt));
+                filters.add(new Filter(filterStatus, null));
+            }
+        }
+        return filters;
+    }
+
+    private long version(Filter filter) {
+        Version version = versions.get(filter);
+        if (version == null) {
+            return floor.get();
+        }
+        version.touch();
+        return version.value();
+    }
+
+    private long generation(Filter filter) {
+        return generations.get(filter.status() == null ? ANY_STATUS : filter.status().ordinal());
+    }
+
+    private record Filter(Status status, LocalDate createdAt) {
+    }
+
+    private static final class Version {
+
+        private final long value;
+        private volatile long lastUsed;
+
+        Version(long value, long now) {
+            this.value = value;
+            this.lastUsed = now;
+        }
+
+        long value() {
+            return value;
+        }
+
+        void touch() {
+            lastUsed = System.nanoTime();
+        }
+
+        boolean isIdle(long now, long ttl) {
+            return now - lastUsed > ttl;
+        }
+    }
+
+    private record Key(Filter filter, long generation, long version, TaskSort sort, TaskCursor cursor, int limit,
+                       Set<TaskField> fields) {
+    }
+}
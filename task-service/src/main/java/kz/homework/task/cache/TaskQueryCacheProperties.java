@@ -0,0 +1,34 @@
+package kz.homework.task.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the {@code /filter} page cache used by {@link TaskQueryCache}, bound from {@code task.query-cache.*}.
+ * The page cache has its own limits because one entry holds up to a full page of tasks, the shared
+ * {@code spring.cache.caffeine.spec} is sized for single tasks.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.query-cache")
+public class TaskQueryCacheProperties {
+
+    /**
+     * Tasks held in cached pages at most, summed over all pages.
+     */
+    private long maxItems = 20_000;
+
+    /**
+     * Time a page stays cached after it was loaded.
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /**
+     * Time a filter's version is kept without being read or written. A dropped version is not reused, its filter
+     * reports a higher one, so this only trades memory for page misses.
+     */
+    private Duration versionTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,27 @@
+package kz.homework.task.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings that apply when requests run on virtual threads ({@code spring.threads.virtual.enabled=true}), bound from
+ * {@code task.virtual-threads.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Threads allowed to hold a database connection at once, {@code 0} uses the connection pool size.
+     */
+    private int maxDatabaseConcurrency = 0;
+
+    /**
+     * Pinning of a virtual thread to its carrier for longer than this is logged and counted.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,47 @@
+package kz.homework.task.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kz.homework.task.cache.TaskQueryCacheProperties;
+import kz.homework.task.model.TaskPage;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The caching advice wraps the transactional one, {@link #ORDER} runs before the transaction interceptor's
+ * {@link Ordered#LOWEST_PRECEDENCE}. A {@code @CacheEvict} on a {@code @Transactional} method therefore evicts after
+ * the commit; evicting before it would let a concurrent read cache the old row again until the entry expires.
+ */
+@Configuration
+@EnableCaching(order = CacheConfig.ORDER)
+@EnableConfigurationProperties(TaskQueryCacheProperties.class)
+public class CacheConfig {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    /**
+     * Single-task lookups by id. Size, TTL and the cache type are set with {@code spring.cache.*} properties.
+     */
+    public static final String TASKS_CACHE = "tasks";
+
+    /**
+     * Mapped pages of {@code /filter} results, see {@link kz.homework.task.cache.TaskQueryCache}. Bounded by the
+     * number of tasks in the cached pages, see {@link TaskQueryCacheProperties}.
+     */
+    public static final String TASK_PAGES_CACHE = "taskPages";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> taskPagesCacheCustomizer(TaskQueryCacheProperties properties) {
+        // a page weighs its tasks, an empty page one
+        return cacheManager -> cacheManager.registerCustomCache(TASK_PAGES_CACHE, Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxItems())
+                .weigher((key, value) -> value instanceof TaskPage<?> page ? Math.max(1, page.getItems().size()) : 1)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build());
+    }
+}
@@ -0,0 +1,10 @@
+package kz.homework.task.config;
+
+import kz.homework.task.ingest.GroupCommitProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class GroupCommitConfig {
+}
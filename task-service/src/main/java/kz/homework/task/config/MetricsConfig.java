@@ -0,0 +1,28 @@
+package kz.homework.task.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Name of the timer of {@link kz.homework.task.service.TaskService} methods, tagged with class and method.
+     */
+    public static final String SERVICE_TIMER = "task.service";
+
+    /**
+     * Counter of error responses, tagged with the {@link kz.homework.task.exception.ApiError} code.
+     */
+    public static final String API_ERRORS_COUNTER = "task.api.errors";
+
+    /**
+     * Makes {@link io.micrometer.core.annotation.Timed} work on Spring beans.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
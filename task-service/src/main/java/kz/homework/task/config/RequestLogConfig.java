@@ -0,0 +1,10 @@
+package kz.homework.task.config;
+
+import kz.homework.task.filter.RequestLogProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+public class RequestLogConfig {
+}
@@ -0,0 +1,10 @@
+package kz.homework.task.config;
+
+import kz.homework.task.events.TaskEventProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskEventProperties.class)
+public class TaskEventConfig {
+}
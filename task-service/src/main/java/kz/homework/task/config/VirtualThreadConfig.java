@@ -0,0 +1,74 @@
+package kz.homework.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import kz.homework.task.concurrency.ConcurrencyLimitedDataSource;
+import kz.homework.task.concurrency.PinnedThreadMonitor;
+import kz.homework.task.concurrency.VirtualThreadProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when requests run on virtual threads, switched on with {@code spring.threads.virtual.enabled=true}. Caps the
+ * threads that use the database at the connection pool size and reports pinned virtual threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    /**
+     * Static and binding its settings by hand, so that the data source is wrapped before anything depends on it.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int maxConcurrency = Binder.get(environment)
+                        .bind("task.virtual-threads", VirtualThreadProperties.class)
+                        .orElseGet(VirtualThreadProperties::new)
+                        .getMaxDatabaseConcurrency();
+                if (maxConcurrency <= 0) {
+                    // fills in the defaults, the pool size is -1 until the pool starts when it is not set explicitly
+                    hikari.validate();
+                    maxConcurrency = hikari.getMaximumPoolSize();
+                }
+                log.info("Limiting database access to {} concurrent threads", maxConcurrency);
+                return new ConcurrencyLimitedDataSource(hikari, maxConcurrency, Duration.ofMillis(hikari.getConnectionTimeout()));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databasePermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("task.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaiting)
+                        .description("Threads waiting for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(properties.getPinnedThreshold(), meterRegistry);
+    }
+}
@@ -1,84 +1,259 @@
 package kz.homework.task.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import kz.homework.task.events.TaskEventBroadcaster;
 import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.idempotency.IdempotencyStore;
 import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskBulkResponse;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskField;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskPatchRequest;
 import kz.homework.task.model.TaskRequest;
 import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
 import kz.homework.task.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final TypeReference<TaskResponse> TASK_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<TaskBatchResult>> TASK_BATCH_RESULTS = new TypeReference<>() {
+    };
+    private static final int NDJSON_SEPARATOR = '\n';
+
     private final TaskService taskService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Create a task")
+    @Operation(summary = "Create a task", description = "A request with an " + IDEMPOTENCY_KEY_HEADER + " already used for the same body returns the "
+            + "task created by the first one, marked with the " + IDEMPOTENT_REPLAYED_HEADER + " header, instead of creating another.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Operation completed successfully"),
             @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "422", description = "Idempotency key has been used with a different request", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Task was not created within the group commit timeout", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "504", description = "Group commit timed out while the task was being written, it may still be created", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest taskResponse) {
-        TaskResponse newTask = taskService.createTask(taskResponse);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newTask);
+    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest taskRequest,
+                                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(min = 1, max = 255, message = "Idempotency key must be from 1 to 255 characters long.") String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(taskRequest));
+        }
+        IdempotencyStore.Outcome<TaskResponse> outcome = idempotencyStore.execute("create", idempotencyKey, taskRequest, TASK_RESPONSE,
+                () -> taskService.createTask(taskRequest));
+        return created(outcome, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Create tasks in batch", description = "Creates every valid task of the array in one transaction. Returns 201 when all items were created and 207 with per-item results otherwise. "
+            + "A batch repeated with the same " + IDEMPOTENCY_KEY_HEADER + " returns the results of the first one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "207", description = "Some of the items were rejected"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency key has been used with a different request", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> createTasks(@RequestBody @Size(min = 1, max = 1000, message = "Batch must contain from 1 to 1000 tasks.") List<TaskRequest> taskRequests,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(min = 1, max = 255, message = "Idempotency key must be from 1 to 255 characters long.") String idempotencyKey) {
+        IdempotencyStore.Outcome<List<TaskBatchResult>> outcome = idempotencyKey == null
+                ? new IdempotencyStore.Outcome<>(taskService.createTasks(taskRequests), false)
+                : idempotencyStore.execute("batch", idempotencyKey, taskRequests, TASK_BATCH_RESULTS, () -> taskService.createTasks(taskRequests));
+        boolean allCreated = outcome.response().stream().allMatch(result -> result.getTask() != null);
+        return created(outcome, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    private static <T> ResponseEntity<T> created(IdempotencyStore.Outcome<T> outcome, HttpStatus status) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (outcome.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.response());
     }
 
-    @Operation(summary = "Get list of tasks")
+    @Operation(summary = "Get list of tasks", description = "Returns one page of tasks. The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "304", description = "Tasks matching the filter have not changed since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/filter")
-    public List<TaskResponse> getAllTasks(@RequestParam(required = false) Status status,
-                                          @RequestParam(required = false) LocalDate createdAt) {
-        return taskService.getTasks(status, createdAt);
+    public ResponseEntity<List<?>> getAllTasks(@RequestParam(required = false) Status status,
+                                               @RequestParam(required = false) LocalDate createdAt,
+                                               @RequestParam(defaultValue = "ID_ASC") TaskSort sort,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be greater than or equal to 1.") @Max(value = 1000, message = "Limit must be less than or equal to 1000.") Integer limit,
+                                               @RequestParam(required = false) Set<String> fields,
+                                               WebRequest webRequest) {
+        // an invalid request is rejected even when its ETag matches
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        TaskCursor position = cursor == null ? null : TaskCursor.decode(cursor, sort);
+        // answered from the filter version alone, before the page is loaded, mapped or serialized
+        if (webRequest.checkNotModified(taskService.getTasksETag(status, createdAt))) {
+            return null;
+        }
+        TaskPage<?> page = taskFields == null
+                ? taskService.getTasks(status, createdAt, sort, position, limit)
+                : taskService.getTaskFields(status, createdAt, sort, position, limit, taskFields);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNext() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getItems());
+    }
+
+    @Operation(summary = "Export tasks", description = "Streams every task matching the filter as newline-delimited JSON.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(required = false) Status status,
+                                                             @RequestParam(required = false) LocalDate createdAt) {
+        ObjectWriter writer = objectMapper.writerFor(TaskResponse.class);
+        StreamingResponseBody body = outputStream -> taskService.exportTasks(status, createdAt, taskResponse -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(taskResponse));
+                outputStream.write(NDJSON_SEPARATOR);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Search tasks", description = "Returns one page of tasks whose title or description contains any of the words of the query, "
+            + "best matches first. The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> searchTasks(@RequestParam @NotBlank(message = "Query must not be blank.") @Size(max = 200, message = "Query must be at most 200 characters long.") String q,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be greater than or equal to 1.") @Max(value = 1000, message = "Limit must be less than or equal to 1000.") Integer limit) {
+        TaskPage<TaskResponse> page = taskService.searchTasks(q, cursor, limit);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNext() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getItems());
+    }
+
+    @Operation(summary = "Subscribe to task changes", description = "Streams created, updated and deleted tasks as Server-Sent Events, optionally only those "
+            + "of tasks in the given status. A client reconnecting with Last-Event-ID receives the events it missed, or a reset event when they are no longer available.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents(@RequestParam(required = false) Status status,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventBroadcaster.subscribe(status, lastEventId);
     }
 
     @Operation(summary = "Get task by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "304", description = "Task has not changed since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public TaskResponse getTaskById(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id) {
-        return taskService.getTaskResponseById(id);
+    public Object getTaskById(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id,
+                              @RequestParam(required = false) Set<String> fields,
+                              WebRequest webRequest) {
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        if (taskFields != null) {
+            return taskService.getTaskFieldsById(id, taskFields);
+        }
+        TaskResponse taskResponse = taskService.getTaskResponseById(id);
+        if (webRequest.checkNotModified(taskService.getTaskETag(taskResponse.getVersion()))) {
+            return null;
+        }
+        return taskResponse;
     }
 
-    @Operation(summary = "Update a task")
+    @Operation(summary = "Update a task", description = "When If-Match is sent the task is updated only if its ETag still matches.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "412", description = "Task has been modified since the ETag in If-Match", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task has been modified by a concurrent request", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}")
-    public TaskResponse updateTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id, @Valid @RequestBody TaskRequest createTaskRequest) {
-        return taskService.updateTask(id, createTaskRequest);
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id, @Valid @RequestBody TaskRequest createTaskRequest,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse taskResponse = taskService.updateTask(id, createTaskRequest, toVersion(ifMatch));
+        return ResponseEntity.ok().eTag(taskService.getTaskETag(taskResponse.getVersion())).body(taskResponse);
+    }
+
+    @Operation(summary = "Partially update a task", description = "Changes only the fields present in the body, provided the task is still at the given version.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task has been modified since the given version", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskResponse> patchTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id, @Valid @RequestBody TaskPatchRequest taskPatchRequest) {
+        TaskResponse taskResponse = taskService.patchTask(id, taskPatchRequest);
+        return ResponseEntity.ok().eTag(taskService.getTaskETag(taskResponse.getVersion())).body(taskResponse);
     }
 
     @Operation(summary = "Delete a task")
@@ -91,4 +266,42 @@ public class TaskController {
     public void deleteTask(@PathVariable @Min(value = 1, message = "Status ID must be greater than or equal to 1.") Integer id) {
         taskService.deleteTask(id);
     }
+
+    @Operation(summary = "Change status of tasks in bulk", description = "Moves every task in status 'from', optionally created on 'createdAt', to status 'to'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping("/status")
+    public TaskBulkResponse updateStatuses(@RequestParam Status from,
+                                           @RequestParam(required = false) LocalDate createdAt,
+                                           @RequestParam Status to) {
+        return new TaskBulkResponse(taskService.updateStatuses(from, createdAt, to));
+    }
+
+    @Operation(summary = "Delete tasks in bulk", description = "Deletes every task in the given status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error for one of the request parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping
+    public TaskBulkResponse deleteTasks(@RequestParam Status status) {
+        return new TaskBulkResponse(taskService.deleteTasks(status));
+    }
+
+    /**
+     * Reads the task version from an If-Match header, {@code null} when any version is acceptable.
+     */
+    private Long toVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return taskService.getTaskVersion(tag.replace("\"", ""));
+    }
 }
@@ -0,0 +1,45 @@
+package kz.homework.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Response of a create request stored under its {@code Idempotency-Key}, see
+ * {@link kz.homework.task.idempotency.IdempotencyStore}.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    /**
+     * Operation and key, e.g. {@code create:3f2a...}.
+     */
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /**
+     * Response body as JSON.
+     */
+    @Lob
+    @Column(nullable = false)
+    private String response;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,38 @@
+package kz.homework.task.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskResponse;
+
+import java.util.Set;
+
+/**
+ * Change pushed to the subscribers of the task change feed.
+ *
+ * @param id       position in the feed, increases by one with every event
+ * @param taskId   changed task, {@code null} for bulk changes
+ * @param task     task after a create or update
+ * @param statuses statuses whose subscribers are interested in the event
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskEvent(long id, Type type, Integer taskId, TaskResponse task, @JsonIgnore Set<Status> statuses) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /**
+         * Many tasks of the statuses changed at once, e.g. by a bulk status update; clients reload them.
+         */
+        BULK_CHANGED,
+        /**
+         * The events since the client's {@code Last-Event-ID} are no longer available; clients reload everything.
+         */
+        RESET
+    }
+
+    boolean matches(Status status) {
+        return status == null || statuses.contains(status);
+    }
+}
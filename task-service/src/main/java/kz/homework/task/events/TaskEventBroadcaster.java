@@ -0,0 +1,349 @@
+package kz.homework.task.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans task changes out to Server-Sent Events subscribers. Publishing only appends the event to a replay ring buffer
+ * and to the bounded queue of every interested subscriber, each subscriber is written to by its own virtual thread,
+ * so a slow or stalled client never holds up the request that changed the task. A subscriber that falls behind by
+ * more than its buffer is handled by {@link TaskEventProperties.Overflow}.
+ * <p>
+ * Event ids are {@code <epoch>-<position>}; a client that reconnects with {@code Last-Event-ID} receives the missed
+ * events from the ring buffer, or a {@code reset} event when they are gone or the id is from before a restart.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster {
+
+    private static final String ID_SEPARATOR = "-";
+
+    /**
+     * Distinguishes the event ids of this instance from those handed out before a restart.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final TaskEventProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TaskEvent[] replay;
+    private final Set<Subscriber> subscribers = new HashSet<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("task-events-heartbeat").daemon().factory());
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter disconnected;
+    private long lastId;
+
+    public TaskEventBroadcaster(TaskEventProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.replay = new TaskEvent[properties.getReplaySize()];
+        this.published = Counter.builder("task.events.published")
+                .description("Task change events published to the feed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("task.events.dropped")
+                .description("Task change events discarded because a subscriber's buffer was full")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("task.events.disconnected")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("task.events.subscribers", this, TaskEventBroadcaster::getSubscriberCount)
+                .description("Connected task change feed subscribers")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        List<Subscriber> closing;
+        lock.lock();
+        try {
+            closing = new ArrayList<>(subscribers);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+        closing.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    /**
+     * @param status      only events of tasks in this status, {@code null} for all
+     * @param lastEventId id of the last event the client has seen, {@code null} for a new subscription
+     */
+    public SseEmitter subscribe(Status status, String lastEventId) {
+        return subscribe(status, lastEventId, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    /**
+     * Same as {@link #subscribe(Status, String)} with the given emitter.
+     */
+    public SseEmitter subscribe(Status status, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(status, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        lock.lock();
+        try {
+            // replayed under the publishing lock, so no event is missed or sent twice between replay and live events
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Publishes the change once the current transaction commits, or at once outside of a transaction.
+     *
+     * @param statuses statuses the changed tasks had before or have after the change
+     */
+    public void publish(TaskEvent.Type type, Integer taskId, TaskResponse task, Set<Status> statuses) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a rolled back change is never announced
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(type, taskId, task, statuses);
+                }
+            });
+        } else {
+            broadcast(type, taskId, task, statuses);
+        }
+    }
+
+    public int getSubscriberCount() {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void broadcast(TaskEvent.Type type, Integer taskId, TaskResponse task, Set<Status> statuses) {
+        lock.lock();
+        try {
+            TaskEvent event = new TaskEvent(++lastId, type, taskId, task, statuses);
+            replay[(int) (event.id() % replay.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                if (event.matches(subscriber.status)) {
+                    subscriber.offer(event);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        published.increment();
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long oldest = Math.max(1, lastId - replay.length + 1);
+        Long last = parseId(lastEventId);
+        if (last == null || last > lastId || last + 1 < oldest) {
+            subscriber.enqueue(new TaskEvent(lastId, TaskEvent.Type.RESET, null, null, EnumSet.allOf(Status.class)));
+            return;
+        }
+        for (long id = last + 1; id <= lastId; id++) {
+            TaskEvent event = replay[(int) (id % replay.length)];
+            if (event.matches(subscriber.status)) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    /**
+     * @return position of an event id of this instance, {@code null} for ids of another instance or malformed ones
+     */
+    private Long parseId(String eventId) {
+        int separator = eventId.lastIndexOf(ID_SEPARATOR);
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        lock.lock();
+        try {
+            subscribers.remove(subscriber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void heartbeat() {
+        lock.lock();
+        try {
+            subscribers.forEach(Subscriber::heartbeat);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue of one client. At most one sender thread drains it at a time, started when the first event arrives in an
+     * empty queue.
+     */
+    private final class Subscriber {
+
+        private final Status status;
+        private final SseEmitter emitter;
+        private final ReentrantLock queueLock = new ReentrantLock();
+        private final ArrayDeque<TaskEvent> queue = new ArrayDeque<>();
+        private boolean heartbeatDue;
+        private boolean closing;
+        private boolean draining;
+
+        Subscriber(Status status, SseEmitter emitter) {
+            this.status = status;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues a live event, applying the overflow policy when the buffer is full.
+         */
+        void offer(TaskEvent event) {
+            queueLock.lock();
+            try {
+                if (closing) {
+                    return;
+                }
+                if (queue.size() >= properties.getSubscriberBuffer()) {
+                    if (properties.getOverflow() == TaskEventProperties.Overflow.DISCONNECT) {
+                        // completed by the sender thread, the emitter callbacks must not run under the publishing lock
+                        closing = true;
+                        queue.clear();
+                        disconnected.increment();
+                        schedule();
+                        return;
+                    }
+                    queue.poll();
+                    dropped.increment();
+                }
+                queue.add(event);
+                schedule();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        /**
+         * Queues a replayed event, replay is bounded by the ring buffer instead of the subscriber buffer.
+         */
+        void enqueue(TaskEvent event) {
+            queueLock.lock();
+            try {
+                queue.add(event);
+                schedule();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        void heartbeat() {
+            queueLock.lock();
+            try {
+                heartbeatDue = true;
+                schedule();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        private void schedule() {
+            if (draining) {
+                return;
+            }
+            draining = true;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                TaskEvent event;
+                queueLock.lock();
+                try {
+                    if (closing) {
+                        draining = false;
+                        break;
+                    }
+                    event = queue.poll();
+                    if (event == null && !heartbeatDue) {
+                        draining = false;
+                        return;
+                    }
+                    heartbeatDue = false;
+                } finally {
+                    queueLock.unlock();
+                }
+                try {
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(epoch + ID_SEPARATOR + event.id())
+                                .name(event.type().name().toLowerCase(Locale.ROOT))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // the client is gone, the container completes the emitter
+                    log.debug("Task event subscriber disconnected: {}", e.getMessage());
+                    queueLock.lock();
+                    try {
+                        closing = true;
+                        draining = false;
+                    } finally {
+                        queueLock.unlock();
+                    }
+                    unsubscribe(this);
+                    return;
+                }
+            }
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package kz.homework.task.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the task change feed served by {@link TaskEventBroadcaster}, bound from {@code task.events.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.events")
+public class TaskEventProperties {
+
+    /**
+     * Latest events kept for subscribers that reconnect with {@code Last-Event-ID}.
+     */
+    private int replaySize = 1000;
+
+    /**
+     * Events waiting to be sent to one subscriber. When a subscriber falls this far behind the {@link #overflow}
+     * policy applies.
+     */
+    private int subscriberBuffer = 256;
+
+    private Overflow overflow = Overflow.DISCONNECT;
+
+    /**
+     * Interval of the comments sent to idle subscribers, keeps proxies from closing the connection and detects gone
+     * clients.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Lifetime of one subscription, clients reconnect afterwards and resume from the replay buffer.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public enum Overflow {
+        /**
+         * Close the stream of the slow subscriber. Its client reconnects with {@code Last-Event-ID} and catches up
+         * from the replay buffer, or receives a {@code reset} event when it fell behind further than that.
+         */
+        DISCONNECT,
+        /**
+         * Discard the oldest waiting event of the slow subscriber and count it.
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,46 @@
+package kz.homework.task.filter;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the first {@code limit} bytes that pass through a stream and counts the rest.
+ */
+final class BodyCapture {
+
+    private final int limit;
+    private byte[] bytes = new byte[256];
+    private int count;
+    private long size;
+
+    BodyCapture(int limit) {
+        this.limit = limit;
+    }
+
+    void write(int b) {
+        if (count < limit) {
+            ensureCapacity(count + 1);
+            bytes[count++] = (byte) b;
+        }
+        size++;
+    }
+
+    void write(byte[] source, int offset, int length) {
+        int accepted = Math.min(length, limit - count);
+        if (accepted > 0) {
+            ensureCapacity(count + accepted);
+            System.arraycopy(source, offset, bytes, count, accepted);
+            count += accepted;
+        }
+        size += length;
+    }
+
+    CapturedBody snapshot() {
+        return new CapturedBody(Arrays.copyOf(bytes, count), size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.min(Math.max(bytes.length * 2, capacity), limit));
+        }
+    }
+}
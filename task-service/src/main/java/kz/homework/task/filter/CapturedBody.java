@@ -0,0 +1,10 @@
+package kz.homework.task.filter;
+
+/**
+ * Beginning of a request body, response body or multipart part.
+ *
+ * @param head first bytes of the body, at most {@code task.request-log.max-body-size}
+ * @param size number of bytes the body had in total
+ */
+public record CapturedBody(byte[] head, long size) {
+}
@@ -0,0 +1,229 @@
+package kz.homework.task.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Copies the first bytes of the body, and of every multipart part, as the handler reads them. Nothing is read ahead
+ * or buffered beyond the capture limit, and bodies of content types that are not logged are not touched at all.
+ */
+class CapturingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final int limit;
+    private final Predicate<String> logged;
+    private final Map<String, BodyCapture> parts = Collections.synchronizedMap(new LinkedHashMap<>());
+    private BodyCapture body;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    CapturingRequestWrapper(HttpServletRequest request, int limit, Predicate<String> logged) {
+        super(request);
+        this.limit = limit;
+        this.logged = logged;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ServletInputStream source = super.getInputStream();
+            if (!logged.test(getContentType())) {
+                return source;
+            }
+            body = new BodyCapture(limit);
+            inputStream = new TeeServletInputStream(source, body);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), encoding != null ? encoding : StandardCharsets.ISO_8859_1.name()));
+        }
+        return reader;
+    }
+
+    @Override
+    public Collection<Part> getParts() throws IOException, ServletException {
+        Collection<Part> source = super.getParts();
+        List<Part> result = new ArrayList<>(source.size());
+        for (Part part : source) {
+            result.add(capture(part));
+        }
+        return result;
+    }
+
+    @Override
+    public Part getPart(String name) throws IOException, ServletException {
+        Part part = super.getPart(name);
+        return part == null ? null : capture(part);
+    }
+
+    /**
+     * @return the captured body, {@code null} when it was not read or its content type is not logged
+     */
+    CapturedBody getBody() {
+        return body == null ? null : body.snapshot();
+    }
+
+    /**
+     * @return captured parts by name, only parts of logged content types that the handler opened are included
+     */
+    Map<String, CapturedBody> getCapturedParts() {
+        Map<String, CapturedBody> result = new LinkedHashMap<>();
+        synchronized (parts) {
+            parts.forEach((name, capture) -> result.put(name, capture.snapshot()));
+        }
+        return result;
+    }
+
+    private Part capture(Part part) {
+        if (!logged.test(part.getContentType())) {
+            return part;
+        }
+        BodyCapture capture = parts.computeIfAbsent(part.getName(), name -> new BodyCapture(limit));
+        return new CapturingPart(part, capture);
+    }
+
+    private static final class TeeServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream source;
+        private final BodyCapture capture;
+
+        TeeServletInputStream(ServletInputStream source, BodyCapture capture) {
+            this.source = source;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = source.read();
+            if (b != -1) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = source.read(b, off, len);
+            if (count > 0) {
+                capture.write(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return source.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return source.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            source.setReadListener(readListener);
+        }
+    }
+
+    private static final class CapturingPart implements Part {
+
+        private final Part part;
+        private final BodyCapture capture;
+
+        CapturingPart(Part part, BodyCapture capture) {
+            this.part = part;
+            this.capture = capture;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(part.getInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        capture.write(b);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int count = super.read(b, off, len);
+                    if (count > 0) {
+                        capture.write(b, off, count);
+                    }
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public String getContentType() {
+            return part.getContentType();
+        }
+
+        @Override
+        public String getName() {
+            return part.getName();
+        }
+
+        @Override
+        public String getSubmittedFileName() {
+            return part.getSubmittedFileName();
+        }
+
+        @Override
+        public long getSize() {
+            return part.getSize();
+        }
+
+        @Override
+        public void write(String fileName) throws IOException {
+            part.write(fileName);
+        }
+
+        @Override
+        public void delete() throws IOException {
+            part.delete();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return part.getHeader(name);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return part.getHeaders(name);
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return part.getHeaderNames();
+        }
+    }
+}
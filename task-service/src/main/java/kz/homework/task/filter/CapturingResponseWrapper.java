@@ -0,0 +1,119 @@
+package kz.homework.task.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.function.Predicate;
+
+/**
+ * Copies the first bytes of the response body while it is written through to the client. Unlike a caching wrapper
+ * the body is never held back, and bodies of content types that are not logged are not touched at all.
+ */
+class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final Predicate<String> logged;
+    private BodyCapture body;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CapturingResponseWrapper(HttpServletResponse response, int limit, Predicate<String> logged) {
+        super(response);
+        this.limit = limit;
+        this.logged = logged;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            // the content type is set before the body is written, so this is the point to decide
+            if (!logged.test(getContentType())) {
+                return target;
+            }
+            body = new BodyCapture(limit);
+            outputStream = new TeeServletOutputStream(target, body);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Pushes out what is still buffered in the writer handed to the handler.
+     */
+    void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return the captured body, {@code null} when nothing was written or its content type is not logged
+     */
+    CapturedBody getBody() {
+        return body == null ? null : body.snapshot();
+    }
+
+    private static final class TeeServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final BodyCapture capture;
+
+        TeeServletOutputStream(ServletOutputStream target, BodyCapture capture) {
+            this.target = target;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            capture.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
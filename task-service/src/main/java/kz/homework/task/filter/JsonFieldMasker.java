@@ -0,0 +1,190 @@
+package kz.homework.task.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Replaces the values of the configured JSON fields with {@code "***"} in a single pass over the UTF-8 bytes of a
+ * body, and cuts the result at a size limit. Objects and arrays under a masked field are masked as a whole. The input
+ * does not have to be valid JSON: anything that does not look like a masked field is copied as it is.
+ */
+public class JsonFieldMasker {
+
+    private static final byte[] MASK = "\"***\"".getBytes(StandardCharsets.UTF_8);
+    private static final String TRUNCATED = "...[truncated, %d bytes total]";
+
+    private final byte[][] fields;
+    private final int maxBytes;
+
+    /**
+     * @param maxBytes size of the masked output after which the rest of the body is dropped
+     */
+    public JsonFieldMasker(Collection<String> fieldNames, int maxBytes) {
+        this.fields = fieldNames.stream()
+                .map(name -> name.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        this.maxBytes = maxBytes;
+    }
+
+    public String mask(String value) {
+        return mask(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String mask(byte[] body) {
+        return mask(body, body.length);
+    }
+
+    /**
+     * @param body beginning of a body
+     * @param size size of the whole body, when it is larger than {@code body} the result is marked as truncated
+     */
+    public String mask(byte[] body, long size) {
+        Output out = new Output(Math.min(body.length, maxBytes) + MASK.length, maxBytes);
+        int i = 0;
+        while (i < body.length && !out.isFull()) {
+            byte b = body[i];
+            if (b != '"') {
+                out.write(b);
+                i++;
+                continue;
+            }
+            int close = closingQuote(body, i + 1);
+            int end = Math.min(close + 1, body.length);
+            boolean masked = close < body.length && isMaskedField(body, i + 1, close);
+            out.write(body, i, end - i);
+            i = end;
+            if (masked) {
+                int colon = skipWhitespace(body, i);
+                if (colon < body.length && body[colon] == ':') {
+                    int value = skipWhitespace(body, colon + 1);
+                    if (value < body.length) {
+                        out.write(body, i, value - i);
+                        out.write(MASK, 0, MASK.length);
+                        i = skipValue(body, value);
+                    }
+                }
+            }
+        }
+
+        int length = out.size;
+        boolean truncated = i < body.length || length > maxBytes || size > body.length;
+        if (length > maxBytes) {
+            length = maxBytes;
+            // do not split a multi-byte character
+            while (length > 0 && (out.bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+        }
+        String result = new String(out.bytes, 0, length, StandardCharsets.UTF_8);
+        return truncated ? result + String.format(TRUNCATED, size) : result;
+    }
+
+    private boolean isMaskedField(byte[] body, int from, int to) {
+        for (byte[] field : fields) {
+            if (Arrays.equals(body, from, to, field, 0, field.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return index of the quote that ends the string starting at {@code from}, or the body length if it is not closed
+     */
+    private static int closingQuote(byte[] body, int from) {
+        int i = from;
+        while (i < body.length) {
+            byte b = body[i];
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return body.length;
+    }
+
+    private static int skipWhitespace(byte[] body, int from) {
+        int i = from;
+        while (i < body.length && (body[i] == ' ' || body[i] == '\t' || body[i] == '\n' || body[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return index right after the JSON value starting at {@code from}
+     */
+    private static int skipValue(byte[] body, int from) {
+        byte first = body[from];
+        if (first == '"') {
+            return Math.min(closingQuote(body, from + 1) + 1, body.length);
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            int i = from;
+            while (i < body.length) {
+                byte b = body[i];
+                if (b == '"') {
+                    i = closingQuote(body, i + 1);
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return i + 1;
+                }
+                i++;
+            }
+            return body.length;
+        }
+        int i = from;
+        while (i < body.length && body[i] != ',' && body[i] != '}' && body[i] != ']'
+                && body[i] != ' ' && body[i] != '\n' && body[i] != '\r' && body[i] != '\t') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Growable buffer that stops accepting bytes one past the limit, so that huge bodies are never copied in full.
+     */
+    private static final class Output {
+
+        private final int limit;
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity, int limit) {
+            this.bytes = new byte[capacity + 1];
+            this.limit = limit;
+        }
+
+        boolean isFull() {
+            return size > limit;
+        }
+
+        void write(byte b) {
+            if (size > limit) {
+                return;
+            }
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        void write(byte[] source, int offset, int length) {
+            int accepted = Math.min(length, limit + 1 - size);
+            if (accepted <= 0) {
+                return;
+            }
+            if (size + accepted > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + accepted));
+            }
+            System.arraycopy(source, offset, bytes, size, accepted);
+            size += accepted;
+        }
+    }
+}
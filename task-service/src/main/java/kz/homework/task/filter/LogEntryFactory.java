@@ -1,13 +1,16 @@
 package kz.homework.task.filter;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -16,33 +19,93 @@ import static org.apache.logging.log4j.util.Strings.LINE_SEPARATOR;
 @Component
 public class LogEntryFactory {
 
-    private static final String MASKING_PATTERN = "(\"fileContents\")\\s?:\\s?\"\\S*?\"";
-    private static final String MASK_TEMPLATE = "$1 : \"***\"";
+    private static final String BODY_NOT_LOGGED = "[not logged]";
+    private static final CapturedBody EMPTY_BODY = new CapturedBody(new byte[0], 0);
 
-    public String buildLogEntry(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response, Map<String, String> requestParts) {
-        return buildRequestLogEntry(request, requestParts) + buildResponseLogEntry(response);
+    private final JsonFieldMasker masker;
+    private final int maxBodySize;
+    private final List<MediaType> loggedContentTypes;
+
+    public LogEntryFactory(RequestLogProperties properties) {
+        this.masker = new JsonFieldMasker(properties.getMaskedFields(), properties.getMaxBodySize());
+        this.maxBodySize = properties.getMaxBodySize();
+        this.loggedContentTypes = MediaType.parseMediaTypes(properties.getLoggedContentTypes());
+    }
+
+    /**
+     * Wraps the request so that the beginning of its body and parts is captured while the handler reads them.
+     */
+    CapturingRequestWrapper wrap(HttpServletRequest request) {
+        return new CapturingRequestWrapper(request, maxBodySize, this::isLogged);
+    }
+
+    /**
+     * Wraps the response so that the beginning of its body is captured while it is written to the client.
+     */
+    CapturingResponseWrapper wrap(HttpServletResponse response) {
+        return new CapturingResponseWrapper(response, maxBodySize, this::isLogged);
+    }
+
+    boolean isLogged(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (MediaType loggedContentType : loggedContentTypes) {
+                if (loggedContentType.includes(mediaType)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // a malformed content type is not logged
+        }
+        return false;
+    }
+
+    /**
+     * Copies what the log entry needs from the request and response. This is the only part that runs on the request
+     * thread, formatting is left to {@link #buildLogEntry(RequestLog)}.
+     *
+     * @param withBodies whether the request and response bodies are copied
+     */
+    RequestLog capture(CapturingRequestWrapper request, CapturingResponseWrapper response, boolean withBodies) {
+        return new RequestLog(
+                request.getMethod(),
+                request.getRequestURI(),
+                extractParameters(request),
+                request.getCapturedParts(),
+                extractRequestHeaders(request),
+                withBodies ? orEmpty(request.getBody()) : null,
+                response.getStatus(),
+                extractResponseHeaders(response),
+                withBodies ? orEmpty(response.getBody()) : null);
     }
 
-    private String buildRequestLogEntry(ContentCachingRequestWrapper request, Map<String, String> requestParts) {
+    public String buildLogEntry(RequestLog requestLog) {
+        return buildRequestLogEntry(requestLog) + buildResponseLogEntry(requestLog);
+    }
+
+    private String buildRequestLogEntry(RequestLog requestLog) {
         return LINE_SEPARATOR + "REQUEST: " + LINE_SEPARATOR +
-                request.getMethod() + " " + request.getRequestURI() + LINE_SEPARATOR +
-                "parameters: " + extractParameters(request) + LINE_SEPARATOR +
-                "parts: " + requestParts + LINE_SEPARATOR +
+                requestLog.method() + " " + requestLog.uri() + LINE_SEPARATOR +
+                "parameters: " + maskParameters(requestLog.parameters()) + LINE_SEPARATOR +
+                "parts: " + maskParts(requestLog.parts()) + LINE_SEPARATOR +
                 "headers: " + LINE_SEPARATOR +
-                extractRequestHeaders(request) + LINE_SEPARATOR +
+                requestLog.requestHeaders() + LINE_SEPARATOR +
                 "body: " + LINE_SEPARATOR +
-                maskBody(request.getContentAsByteArray()) + LINE_SEPARATOR;
+                maskBody(requestLog.requestBody()) + LINE_SEPARATOR;
     }
 
-    private String buildResponseLogEntry(ContentCachingResponseWrapper response) {
-        return "RESPONSE: " + response.getStatus() + LINE_SEPARATOR +
+    private String buildResponseLogEntry(RequestLog requestLog) {
+        return "RESPONSE: " + requestLog.status() + LINE_SEPARATOR +
                 "headers: " + LINE_SEPARATOR +
-                extractResponseHeaders(response) + LINE_SEPARATOR +
+                requestLog.responseHeaders() + LINE_SEPARATOR +
                 "body: " + LINE_SEPARATOR +
-                maskBody(response.getContentAsByteArray()) + LINE_SEPARATOR;
+                maskBody(requestLog.responseBody()) + LINE_SEPARATOR;
     }
 
-    private Map<String, String> extractRequestHeaders(ContentCachingRequestWrapper request) {
+    private Map<String, String> extractRequestHeaders(HttpServletRequest request) {
         Map<String, String> headers = new LinkedHashMap<>();
         Enumeration<String> names = request.getHeaderNames();
         while (names.hasMoreElements()) {
@@ -56,7 +119,7 @@ public class LogEntryFactory {
         return headers;
     }
 
-    private Map<String, String> extractResponseHeaders(ContentCachingResponseWrapper response) {
+    private Map<String, String> extractResponseHeaders(HttpServletResponse response) {
         Map<String, String> headers = new LinkedHashMap<>();
         for (String name : response.getHeaderNames()) {
             headers.put(name, response.getHeader(name));
@@ -64,17 +127,38 @@ public class LogEntryFactory {
         return headers;
     }
 
-    private Map<String, String> extractParameters(ContentCachingRequestWrapper request) {
+    private Map<String, String> extractParameters(HttpServletRequest request) {
         Map<String, String[]> parameterMap = request.getParameterMap();
 
         return parameterMap.entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
-                        entry -> Arrays.toString(entry.getValue()).replaceAll(MASKING_PATTERN, MASK_TEMPLATE)
+                        entry -> Arrays.toString(entry.getValue())
+                ));
+    }
+
+    private Map<String, String> maskParts(Map<String, CapturedBody> parts) {
+        Map<String, String> masked = new LinkedHashMap<>();
+        parts.forEach((name, part) -> masked.put(name, maskBody(part)));
+        return masked;
+    }
+
+    private Map<String, String> maskParameters(Map<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> masker.mask(entry.getValue())
                 ));
     }
 
-    private String maskBody(byte[] body) {
-        return new String(body).replaceAll(MASKING_PATTERN, MASK_TEMPLATE);
+    private String maskBody(CapturedBody body) {
+        if (body == null) {
+            return BODY_NOT_LOGGED;
+        }
+        return masker.mask(body.head(), body.size());
+    }
+
+    private static CapturedBody orEmpty(CapturedBody body) {
+        return body == null ? EMPTY_BODY : body;
     }
 }
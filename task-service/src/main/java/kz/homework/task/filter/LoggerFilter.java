@@ -5,64 +5,64 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.Part;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
-import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
-import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
-
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class LoggerFilter extends OncePerRequestFilter {
 
+    /**
+     * Endpoints that stream their response asynchronously, the entry would be written before the body is complete.
+     */
+    private static final Set<String> STREAMING_URIS = Set.of("/api/v1/tasks/export");
+
+    private static final PathMatcher ROUTE_MATCHER = new AntPathMatcher();
+
     private final LogEntryFactory logEntryFactory;
+    private final RequestLogWriter requestLogWriter;
+    private final RequestLogProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(@Nonnull HttpServletRequest request) {
+        return STREAMING_URIS.contains(request.getRequestURI());
+    }
 
     @Override
     protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, FilterChain filterChain) throws IOException, ServletException {
-        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-        Map<String, String> requestParts = extractRequestParts(requestWrapper);
+        CapturingRequestWrapper requestWrapper = logEntryFactory.wrap(request);
+        CapturingResponseWrapper responseWrapper = logEntryFactory.wrap(response);
         try {
             filterChain.doFilter(requestWrapper, responseWrapper);
         } finally {
-            if (requestWrapper.getRequestURI().startsWith("/api/v1")) {
-                log.info(logEntryFactory.buildLogEntry(requestWrapper, responseWrapper, requestParts));
+            responseWrapper.finish();
+            String uri = requestWrapper.getRequestURI();
+            if (uri.startsWith("/api/v1")) {
+                boolean error = responseWrapper.getStatus() >= 400;
+                if (error || isSampled(uri)) {
+                    boolean withBodies = error || !properties.isErrorBodiesOnly();
+                    requestLogWriter.write(logEntryFactory.capture(requestWrapper, responseWrapper, withBodies));
+                }
             }
-            responseWrapper.copyBodyToResponse();
         }
     }
 
-    private Map<String, String> extractRequestParts(HttpServletRequest request) {
-        Map<String, String> result = new HashMap<>();
-        try {
-            if (request.getContentType() != null && request.getContentType().startsWith(MULTIPART_FORM_DATA_VALUE)) {
-                for (Part part : request.getParts()) {
-                    if (APPLICATION_JSON_VALUE.equals(part.getContentType())) {
-                        InputStream inputStream = part.getInputStream();
-                        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                        byte[] buffer = new byte[1024];
-                        for (int length; (length = inputStream.read(buffer)) != -1; ) {
-                            byteArrayOutputStream.write(buffer, 0, length);
-                        }
-                        result.put(part.getName(), byteArrayOutputStream.toString(request.getCharacterEncoding()));
-                    }
-                }
+    private boolean isSampled(String uri) {
+        double sampleRate = properties.getSampleRate();
+        for (Map.Entry<String, Double> route : properties.getRoutes().entrySet()) {
+            if (ROUTE_MATCHER.match(route.getKey(), uri)) {
+                sampleRate = route.getValue();
+                break;
             }
-        } catch (Exception e) {
-            // Note ignoring exceptions
         }
-        return result;
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
     }
 }
@@ -0,0 +1,22 @@
+package kz.homework.task.filter;
+
+import java.util.Map;
+
+/**
+ * Everything that goes into a log entry, copied from the request and response on the request thread so that it can
+ * be formatted later on another one.
+ *
+ * @param parts        captured multipart parts by name
+ * @param requestBody  captured request body, {@code null} when bodies are not logged for this request
+ * @param responseBody captured response body, {@code null} when bodies are not logged for this request
+ */
+public record RequestLog(String method,
+                         String uri,
+                         Map<String, String> parameters,
+                         Map<String, CapturedBody> parts,
+                         Map<String, String> requestHeaders,
+                         CapturedBody requestBody,
+                         int status,
+                         Map<String, String> responseHeaders,
+                         CapturedBody responseBody) {
+}
@@ -0,0 +1,68 @@
+package kz.homework.task.filter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the request/response log written by {@link LoggerFilter}, bound from {@code task.request-log.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.request-log")
+public class RequestLogProperties {
+
+    /**
+     * Entries waiting to be formatted and written. When the queue is full the {@link #overflow} policy applies.
+     */
+    private int queueCapacity = 10_000;
+
+    private Overflow overflow = Overflow.DROP;
+
+    /**
+     * Share of successful requests that are logged, from 0 to 1. Error responses are always logged.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Sample rates by Ant-style URI pattern, the first matching pattern wins over {@link #sampleRate}.
+     */
+    private Map<String, Double> routes = new LinkedHashMap<>();
+
+    /**
+     * Log request and response bodies only for responses with status 400 and above.
+     */
+    private boolean errorBodiesOnly = false;
+
+    /**
+     * JSON fields whose values are replaced with {@code "***"} in logged bodies and parameters.
+     */
+    private List<String> maskedFields = List.of("fileContents");
+
+    /**
+     * Bytes of each body and multipart part that are captured and logged, the rest streams through untouched and is
+     * replaced with a truncation marker in the log.
+     */
+    private int maxBodySize = 16 * 1024;
+
+    /**
+     * Content types whose bodies and parts are captured, wildcards such as {@code text/*} are allowed. Other bodies
+     * are passed through without any copying.
+     */
+    private List<String> loggedContentTypes = List.of("application/json", "application/*+json", "text/plain");
+
+    public enum Overflow {
+        /**
+         * Discard the entry and count it, the request thread never waits for the log.
+         */
+        DROP,
+        /**
+         * Wait for free space in the queue, nothing is lost but a slow log slows requests down.
+         */
+        BLOCK
+    }
+}
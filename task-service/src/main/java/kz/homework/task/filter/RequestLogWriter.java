@@ -0,0 +1,100 @@
+package kz.homework.task.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats and writes {@link RequestLog} entries on a background thread. Request threads only put the captured entry
+ * into a bounded queue; what happens when it is full is decided by {@link RequestLogProperties.Overflow}.
+ */
+@Slf4j
+@Component
+public class RequestLogWriter {
+
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final LogEntryFactory logEntryFactory;
+    private final RequestLogProperties properties;
+    private final BlockingQueue<RequestLog> queue;
+    private final Counter dropped;
+    private final Counter written;
+    private volatile boolean running;
+    private Thread worker;
+
+    public RequestLogWriter(LogEntryFactory logEntryFactory, RequestLogProperties properties, MeterRegistry meterRegistry) {
+        this.logEntryFactory = logEntryFactory;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.dropped = Counter.builder("task.request.log.dropped")
+                .description("Request log entries discarded because the queue was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("task.request.log.written")
+                .description("Request log entries written")
+                .register(meterRegistry);
+        Gauge.builder("task.request.log.queue", queue, BlockingQueue::size)
+                .description("Request log entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("request-log-writer").daemon().start(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            // the worker empties the queue before it exits, entries of the last requests are not lost on shutdown
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * Queues the entry for writing, never throws.
+     */
+    public void write(RequestLog requestLog) {
+        if (properties.getOverflow() == RequestLogProperties.Overflow.BLOCK) {
+            try {
+                queue.put(requestLog);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            }
+        } else if (!queue.offer(requestLog)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDropped() {
+        return (long) dropped.count();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestLog requestLog = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (requestLog != null) {
+                    log.info(logEntryFactory.buildLogEntry(requestLog));
+                    written.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write request log entry", e);
+            }
+        }
+    }
+}
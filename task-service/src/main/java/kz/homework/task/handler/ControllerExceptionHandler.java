@@ -2,20 +2,24 @@ package kz.homework.task.handler;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ElementKind;
 import jakarta.validation.Path;
+import kz.homework.task.config.MetricsConfig;
 import kz.homework.task.exception.ApiError;
 import kz.homework.task.exception.ApiException;
 import kz.homework.task.exception.ErrorResponse;
-import lombok.RequiredArgsConstructor;
+import kz.homework.task.exception.StacklessApiException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.mapping.context.InvalidPersistentPropertyPath;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.util.CollectionUtils;
 import org.springframework.validation.BindException;
 import org.springframework.validation.Errors;
@@ -24,6 +28,7 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
@@ -32,6 +37,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -42,24 +48,34 @@ import java.util.stream.StreamSupport;
 @Hidden
 @Slf4j
 @RestControllerAdvice
-@RequiredArgsConstructor
 public class ControllerExceptionHandler {
 
-    private static final String TASKS_SERVICE = "tasks-service";
+    private static final String TASKS_SERVICE = ErrorResponse.TASKS_SERVICE;
     private static final String INVALID_VALUE = "Invalid value: '%s'";
 
+    private final Map<ApiError, Counter> errorCounters = new EnumMap<>(ApiError.class);
+    private final Map<ApiError, ResponseEntity<ErrorResponse>> templateResponses = new EnumMap<>(ApiError.class);
+
+    public ControllerExceptionHandler(MeterRegistry meterRegistry) {
+        for (ApiError error : ApiError.values()) {
+            errorCounters.put(error, Counter.builder(MetricsConfig.API_ERRORS_COUNTER)
+                    .description("Error responses by error code")
+                    .tag("code", error.name().toLowerCase())
+                    .register(meterRegistry));
+            templateResponses.put(error, new ResponseEntity<>(ErrorResponse.template(error), HttpStatus.valueOf(error.getStatus())));
+        }
+    }
+
     @ExceptionHandler({HttpMessageNotReadableException.class})
     public ResponseEntity<ErrorResponse> handleMapperErrors(HttpMessageNotReadableException exception) throws IOException {
         log.warn(exception.getLocalizedMessage());
         ApiError error = ApiError.BAD_REQUEST;
         ErrorResponse errorResponse;
 
-        String exceptionMessage = exception.getMessage();
-        String value = StringUtils.substringBetween(exceptionMessage, "\"", "\"");
-
         Throwable cause = exception.getCause();
-        if (exceptionMessage.contains("not one of the values accepted for Enum class")) {
-            errorResponse = new ErrorResponse(error.name(), "invalid value " + value);
+        if (cause instanceof InvalidFormatException invalidFormatException && invalidFormatException.getTargetType() != null
+                && invalidFormatException.getTargetType().isEnum()) {
+            errorResponse = new ErrorResponse(error.name(), "invalid value " + invalidFormatException.getValue());
         } else if (cause instanceof JsonMappingException jsonMappingException) {
             String invalidDataFieldNames = jsonMappingException.getPath().stream().map(JsonMappingException.Reference::getFieldName).filter(Objects::nonNull).collect(Collectors.joining("."));
             errorResponse = new ErrorResponse(error.name(), String.format("invalid value for a field: '%s'", invalidDataFieldNames));
@@ -74,21 +90,26 @@ public class ControllerExceptionHandler {
             errorResponse.setOrigin(TASKS_SERVICE);
         }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
     }
 
     @ExceptionHandler({ApiException.class})
     public ResponseEntity<ErrorResponse> handleApiExceptions(ApiException exception) {
+        ApiError apiError = exception.getApiError();
+        if (exception instanceof StacklessApiException) {
+            // expected errors have no stack trace to log and share one immutable response each
+            log.warn("Expected error: {}", apiError);
+            return respond(apiError, templateResponses.get(apiError).getBody());
+        }
         log.error(exception.getLocalizedMessage(), exception);
 
-        ApiError apiError = exception.getApiError();
         ErrorResponse errorResponse = exception.getErrorResponse();
 
         if (errorResponse.getOrigin() == null || errorResponse.getOrigin().isEmpty()) {
             errorResponse.setOrigin(TASKS_SERVICE);
         }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(apiError.getStatus()));
+        return respond(apiError, errorResponse);
     }
 
     @ExceptionHandler({MissingRequestHeaderException.class})
@@ -102,7 +123,29 @@ public class ControllerExceptionHandler {
             errorResponse.setOrigin(TASKS_SERVICE);
         }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
+    }
+
+    @ExceptionHandler({MissingServletRequestParameterException.class})
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.ARGUMENT_MISSING;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getMessage());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return respond(error, errorResponse);
+    }
+
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException exception) {
+        log.warn(exception.getLocalizedMessage());
+        ApiError error = ApiError.VERSION_CONFLICT;
+
+        ErrorResponse errorResponse = new ErrorResponse(error.name(), error.getMessage());
+        errorResponse.setOrigin(TASKS_SERVICE);
+
+        return respond(error, errorResponse);
     }
 
     @ExceptionHandler({Exception.class})
@@ -113,7 +156,7 @@ public class ControllerExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(error.name(), "server error");
         errorResponse.setOrigin(TASKS_SERVICE);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
     }
 
     @ExceptionHandler({NoResourceFoundException.class})
@@ -123,7 +166,7 @@ public class ControllerExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getMessage());
         errorResponse.setOrigin(TASKS_SERVICE);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
     }
 
     @ExceptionHandler({HandlerMethodValidationException.class})
@@ -134,7 +177,7 @@ public class ControllerExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getReason());
         errorResponse.setOrigin(TASKS_SERVICE);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
     }
 
     @ExceptionHandler({HttpRequestMethodNotSupportedException.class})
@@ -145,7 +188,7 @@ public class ControllerExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(error.name(), exception.getMessage());
         errorResponse.setOrigin(TASKS_SERVICE);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(error.getStatus()));
+        return respond(error, errorResponse);
     }
 
 
@@ -165,7 +208,7 @@ public class ControllerExceptionHandler {
         errorResponse.setCode(ApiError.BAD_REQUEST.name());
         errorResponse.setTimestamp(LocalDateTime.now());
         errorResponse.setDescription(errors.isEmpty() ? exception.getMessage() : "invalid data");
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ApiError.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler({MethodArgumentTypeMismatchException.class})
@@ -183,7 +226,7 @@ public class ControllerExceptionHandler {
         errorResponse.setCode(ApiError.BAD_REQUEST.name());
         errorResponse.setTimestamp(LocalDateTime.now());
         errorResponse.setDescription(String.format("unknown value: %s", exception.getUnresolvableSegment()));
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ApiError.BAD_REQUEST, errorResponse);
     }
 
     private Map<String, Object> convert(ConstraintViolationException exception) {
@@ -215,11 +258,10 @@ public class ControllerExceptionHandler {
         for (ObjectError error : errors.getAllErrors()) {
             if (error instanceof FieldError fieldError) {
                 errorMap.put(fieldError.getField(), error.getDefaultMessage());
-                String defaultMessage = Optional.ofNullable(fieldError.getDefaultMessage()).orElse(String.format(INVALID_VALUE, fieldError.getRejectedValue()));
-                // in case of 'typeMismatch'
-                if (defaultMessage.contains("failed to convert")) {
-                    defaultMessage = String.format(INVALID_VALUE, fieldError.getRejectedValue());
-                }
+                // a value that could not be converted, e.g. 'typeMismatch', has no useful default message
+                String defaultMessage = fieldError.isBindingFailure()
+                        ? String.format(INVALID_VALUE, fieldError.getRejectedValue())
+                        : Optional.ofNullable(fieldError.getDefaultMessage()).orElse(String.format(INVALID_VALUE, fieldError.getRejectedValue()));
                 errorMap.put(fieldError.getField(), defaultMessage);
             } else {
                 errorMap.put(error.getCode(), error.getDefaultMessage());
@@ -234,6 +276,16 @@ public class ControllerExceptionHandler {
         errorResponse.setCode(ApiError.BAD_REQUEST.name());
         errorResponse.setTimestamp(LocalDateTime.now());
         errorResponse.setDescription("invalid data");
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ApiError.BAD_REQUEST, errorResponse);
+    }
+
+    /**
+     * Counts the error and answers with its status, every handler responds through here. The template body of the
+     * error is answered with its shared entity.
+     */
+    private ResponseEntity<ErrorResponse> respond(ApiError error, ErrorResponse errorResponse) {
+        errorCounters.get(error).increment();
+        ResponseEntity<ErrorResponse> template = templateResponses.get(error);
+        return template.getBody() == errorResponse ? template : new ResponseEntity<>(errorResponse, template.getStatusCode());
     }
 }
\ No newline at end of file
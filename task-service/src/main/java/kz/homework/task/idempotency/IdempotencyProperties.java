@@ -0,0 +1,37 @@
+package kz.homework.task.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code Idempotency-Key} support of the create endpoints, bound from {@code task.idempotency.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Keys kept in memory at most, the oldest are forgotten first.
+     */
+    private int maxKeys = 10_000;
+
+    /**
+     * How long a key is remembered. A retry after that creates the task again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Also store the responses in the {@code idempotency_records} table, so that keys outlive a restart and the
+     * in-memory limit.
+     */
+    private boolean persistent = false;
+
+    /**
+     * Interval of deleting expired keys from the table.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,256 @@
+package kz.homework.task.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.homework.task.entity.IdempotencyRecord;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Responses of create requests by their {@code Idempotency-Key}, so that a client retrying after a timeout gets the
+ * task created by its first attempt instead of a duplicate. Keys live in a bounded in-memory map for
+ * {@link IdempotencyProperties#getTtl()}; replays are answered from it without touching the database. A duplicate
+ * arriving while the first request is still running waits for its response. With
+ * {@link IdempotencyProperties#isPersistent()} responses are also written to the {@code idempotency_records} table and
+ * looked up there when a key is not in memory.
+ * <p>
+ * A key is bound to the request it was first used with; reusing it for a different body is rejected. A failed request
+ * is not remembered, retrying it runs it again.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final char ID_SEPARATOR = ':';
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * In insertion order, which is also expiry order as every key lives equally long.
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Counter replayed;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyStore(IdempotencyProperties properties, IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.replayed = Counter.builder("task.idempotency.replayed")
+                .description("Create requests answered with the stored response of an earlier request with the same key")
+                .register(meterRegistry);
+        Gauge.builder("task.idempotency.keys", this, IdempotencyStore::getKeyCount)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isPersistent()) {
+            return;
+        }
+        long interval = properties.getPurgeInterval().toMillis();
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("idempotency-purge").daemon().factory());
+        purger.scheduleAtFixedRate(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the action once per operation and key and returns its response for every request with that key.
+     *
+     * @param operation distinguishes endpoints sharing a key space, e.g. {@code create}
+     * @param request   request body the key is bound to
+     * @param type      type of the response, needed to read it back from the table
+     */
+    public <T> Outcome<T> execute(String operation, String key, Object request, TypeReference<T> type, Supplier<T> action) {
+        String id = operation + ID_SEPARATOR + key;
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+        Entry entry;
+        boolean first = false;
+        lock.lock();
+        try {
+            evict(now);
+            entry = entries.get(id);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + properties.getTtl().toMillis(), new CompletableFuture<>());
+                entries.put(id, entry);
+                first = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw StacklessApiException.of(ApiError.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (!first) {
+            // a duplicate waits for the first request instead of creating the task again
+            replayed.increment();
+            return new Outcome<>(await(entry), true);
+        }
+        try {
+            Outcome<T> outcome = load(id, fingerprint, type);
+            if (outcome == null) {
+                T response = action.get();
+                store(id, fingerprint, entry.expiresAt(), response);
+                outcome = new Outcome<>(response, false);
+            } else {
+                replayed.increment();
+            }
+            entry.response().complete(outcome.response());
+            return outcome;
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                entries.remove(id, entry);
+            } finally {
+                lock.unlock();
+            }
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int getKeyCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets expired keys and, over the limit, the oldest ones. Keys whose request is still running are kept even over
+     * the limit, by at most the number of requests in flight: forgetting one would let its retry run again.
+     */
+    private void evict(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!entry.response().isDone()) {
+                continue;
+            }
+            if (entry.expiresAt() > now && entries.size() < properties.getMaxKeys()) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(Entry entry) {
+        try {
+            return (T) entry.response().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return response stored in the table by an earlier request with the key, {@code null} if there is none
+     */
+    private <T> Outcome<T> load(String id, String fingerprint, TypeReference<T> type) {
+        if (!properties.isPersistent()) {
+            return null;
+        }
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id)
+                .filter(existing -> existing.getExpiresAt().isAfter(Instant.now()))
+                .orElse(null);
+        if (record == null) {
+            return null;
+        }
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw StacklessApiException.of(ApiError.IDEMPOTENCY_KEY_REUSED);
+        }
+        try {
+            return new Outcome<>(objectMapper.readValue(record.getResponse(), type), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for idempotency key " + id, e);
+        }
+    }
+
+    private void store(String id, String fingerprint, long expiresAt, Object response) {
+        if (!properties.isPersistent()) {
+            return;
+        }
+        // written after the task was created: a crash in between forgets the key, as an in-memory store would
+        try {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setId(id);
+            record.setFingerprint(fingerprint);
+            record.setResponse(objectMapper.writeValueAsString(response));
+            record.setExpiresAt(Instant.ofEpochMilli(expiresAt));
+            idempotencyRecordRepository.save(record);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // the task exists, failing its request now would make the client create it again
+            log.warn("Failed to store response for idempotency key {}", id, e);
+        }
+    }
+
+    private void purge() {
+        try {
+            int deleted = idempotencyRecordRepository.deleteExpired(Instant.now());
+            log.debug("Purged {} expired idempotency keys", deleted);
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired idempotency keys", e);
+        }
+    }
+
+    /**
+     * SHA-256 of the request as JSON, equal for equal bodies however they were formatted on the wire.
+     */
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    /**
+     * @param replayed whether the response was produced by an earlier request with the same key
+     */
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, long expiresAt, CompletableFuture<Object> response) {
+    }
+}
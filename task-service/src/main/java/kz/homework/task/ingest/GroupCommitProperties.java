@@ -0,0 +1,44 @@
+package kz.homework.task.ingest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the group commit of created tasks done by {@link TaskCreateBatcher}, bound from
+ * {@code task.group-commit.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * Insert single created tasks together with concurrent ones instead of in a transaction of their own.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Tasks inserted in one transaction at most, best kept at a multiple of the JDBC batch size.
+     */
+    private int maxBatchSize = 50;
+
+    /**
+     * Longest time the first task of a batch waits for others to join it. {@code 0} only groups the tasks that queued
+     * up while the previous batch was being written.
+     */
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    /**
+     * Tasks waiting to be written at most; further callers wait for room in the queue.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Longest time a caller waits for the commit of its task before its request fails. A task still queued then is
+     * dropped, one whose batch is being written may still be committed after that.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
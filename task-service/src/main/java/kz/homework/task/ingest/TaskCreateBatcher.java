@@ -0,0 +1,230 @@
+package kz.homework.task.ingest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.homework.task.entity.Task;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit of created tasks. Callers put their task into a bounded queue and wait, a single writer thread inserts
+ * the queued tasks in one transaction as JDBC batches once {@link GroupCommitProperties#getMaxBatchSize()} of them are
+ * waiting or {@link GroupCommitProperties#getMaxDelay()} after the first arrived. A caller returns only after the
+ * transaction holding its task committed, so a created task is exactly as durable as a commit of its own would make
+ * it, while a burst of creates pays for one commit per batch instead of one per task.
+ */
+@Slf4j
+@Component
+public class TaskCreateBatcher {
+
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingTask> queue;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Timer latencyTimer;
+    private volatile boolean running;
+    private Thread writer;
+
+    public TaskCreateBatcher(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+                             GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = DistributionSummary.builder("task.group.commit.batch.size")
+                .description("Tasks inserted per group commit")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("task.group.commit.flush")
+                .description("Time to insert and commit one batch of tasks")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("task.group.commit.latency")
+                .description("Time from queueing a task to the commit of its batch")
+                .register(meterRegistry);
+        Gauge.builder("task.group.commit.queue", queue, BlockingQueue::size)
+                .description("Tasks waiting for a group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("task-group-commit").daemon().start(this::drain);
+        log.info("Group commit of created tasks enabled with batches of up to {} tasks every {} ms",
+                properties.getMaxBatchSize(), properties.getMaxDelay().toMillis());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            // the writer empties the queue before it exits, waiting callers are not left hanging on shutdown
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        }
+        // whatever the writer did not get to in time is failed rather than left waiting
+        List<PendingTask> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Group commit stopped with {} tasks still queued", left.size());
+            IllegalStateException failure = new IllegalStateException("Group commit stopped before the task was written");
+            left.forEach(pending -> pending.result().completeExceptionally(failure));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues the task and waits until the batch holding it is committed, at most
+     * {@link GroupCommitProperties#getTimeout()}. A timeout fails with {@link ApiError#CREATE_TIMED_OUT} when the task
+     * was still queued and is dropped, with {@link ApiError#CREATE_OUTCOME_UNKNOWN} when its batch may yet commit.
+     *
+     * @return the saved task
+     */
+    public Task save(Task task) {
+        if (!running) {
+            return taskRepository.save(task);
+        }
+        PendingTask pending = new PendingTask(task, System.nanoTime(), new CompletableFuture<>());
+        try {
+            // a full queue holds the caller back instead of growing without bound
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing task for group commit", e);
+        }
+        if (!running && queue.remove(pending)) {
+            // stopped while queueing, the writer may have exited already, so nothing would take the task
+            return taskRepository.save(task);
+        }
+        try {
+            return pending.result().get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                // the writer never took the task, so it will not be created
+                throw StacklessApiException.of(ApiError.CREATE_TIMED_OUT);
+            }
+            // the writer is inserting the task and may still commit it
+            throw StacklessApiException.of(ApiError.CREATE_OUTCOME_UNKNOWN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    private void drain() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long maxDelay = properties.getMaxDelay().toNanos();
+        List<PendingTask> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTask first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedAt() + maxDelay;
+                while (batch.size() < maxBatchSize) {
+                    // whatever queued up while the previous batch was written joins without waiting
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTask next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                IllegalStateException failure = new IllegalStateException("Group commit writer interrupted");
+                batch.forEach(pending -> pending.result().completeExceptionally(failure));
+                queue.forEach(pending -> pending.result().completeExceptionally(failure));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Group commit failed", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingTask> batch) {
+        batchSize.record(batch.size());
+        List<Task> tasks = batch.stream().map(PendingTask::task).toList();
+        List<Task> savedTasks;
+        try {
+            // ids come from the pooled sequence, so the inserts are sent as JDBC batches on flush
+            savedTasks = flushTimer.record(() -> transactionTemplate.execute(status -> taskRepository.saveAllAndFlush(tasks)));
+        } catch (RuntimeException e) {
+            // one bad task must not fail the others, so each is retried in a transaction of its own
+            log.warn("Group commit of {} tasks failed, saving them one by one: {}", batch.size(), e.getMessage());
+            for (PendingTask pending : batch) {
+                try {
+                    complete(pending, taskRepository.save(copy(pending.task())));
+                } catch (RuntimeException failure) {
+                    pending.result().completeExceptionally(failure);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), savedTasks.get(i));
+        }
+    }
+
+    private void complete(PendingTask pending, Task savedTask) {
+        latencyTimer.record(System.nanoTime() - pending.queuedAt(), TimeUnit.NANOSECONDS);
+        pending.result().complete(savedTask);
+    }
+
+    /**
+     * Fresh entity with the values of a task whose batch was rolled back, the original may carry the id and version
+     * assigned in that transaction.
+     */
+    private static Task copy(Task task) {
+        Task copy = new Task();
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setStatus(task.getStatus());
+        return copy;
+    }
+
+    private record PendingTask(Task task, long queuedAt, CompletableFuture<Task> result) {
+    }
+}
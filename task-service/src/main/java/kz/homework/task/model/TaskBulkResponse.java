@@ -0,0 +1,14 @@
+package kz.homework.task.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Result of a bulk operation over the tasks matching a filter.")
+public class TaskBulkResponse {
+
+    @Schema(description = "Number of affected tasks", example = "42")
+    private final int affected;
+}
@@ -0,0 +1,52 @@
+package kz.homework.task.model;
+
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task properties that can be requested through the {@code fields} query parameter.
+ */
+@Getter
+public enum TaskField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    CREATED_AT("createdAt");
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @return the requested fields or {@code null} when none were requested
+     */
+    public static Set<TaskField> parse(Collection<String> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return null;
+        }
+        Set<TaskField> fields = EnumSet.noneOf(TaskField.class);
+        for (String property : properties) {
+            fields.add(fromProperty(property.trim()));
+        }
+        return fields;
+    }
+
+    public static TaskField fromProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        ApiException exception = new ApiException(ApiError.UNKNOWN_FIELD);
+        exception.set("field", property);
+        throw exception;
+    }
+}
@@ -0,0 +1,18 @@
+package kz.homework.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskPage<T> {
+
+    private final List<T> items;
+
+    /**
+     * Opaque cursor of the next page or {@code null} when the last page has been reached.
+     */
+    private final String next;
+}
@@ -1,19 +1,84 @@
 package kz.homework.task.repository;
 
+import jakarta.persistence.QueryHint;
 import kz.homework.task.entity.Task;
 import kz.homework.task.model.Status;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
-    List<Task> findByStatus(Status status);
+    /**
+     * Number of rows the JDBC driver fetches per round trip while streaming an export.
+     */
+    String EXPORT_FETCH_SIZE = "500";
 
-    List<Task> findByCreatedAt(LocalDate createdAt);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamAllByOrderByIdAsc();
 
-    List<Task> findByStatusAndCreatedAt(Status status, LocalDate createdAt);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamByStatusOrderByIdAsc(Status status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamByCreatedAtOrderByIdAsc(LocalDate createdAt);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamByStatusAndCreatedAtOrderByIdAsc(Status status, LocalDate createdAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.status = :to, t.version = t.version + 1 where t.status = :from")
+    int updateStatus(@Param("from") Status from, @Param("to") Status to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.status = :to, t.version = t.version + 1 where t.status = :from and t.createdAt = :createdAt")
+    int updateStatusByCreatedAt(@Param("from") Status from, @Param("createdAt") LocalDate createdAt, @Param("to") Status to);
+
+    /**
+     * Applies the non-null fields to the task in a single statement, provided it is still at the given version.
+     *
+     * @return 1 when the task was updated, 0 when it does not exist or has a different version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.title = coalesce(:title, t.title),
+                              t.description = coalesce(:description, t.description),
+                              t.status = coalesce(:status, t.status),
+                              t.version = t.version + 1
+            where t.id = :id and t.version = :version""")
+    int patch(@Param("id") Integer id, @Param("version") Long version,
+              @Param("title") String title, @Param("description") String description, @Param("status") Status status);
+
+    @Query("select t.id from Task t where t.status = :status")
+    List<Integer> findIdsByStatus(@Param("status") Status status);
+
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.status = :status")
+    int deleteAllByStatus(@Param("status") Status status);
 }
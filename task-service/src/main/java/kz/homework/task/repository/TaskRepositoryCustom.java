@@ -0,0 +1,19 @@
+package kz.homework.task.repository;
+
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.TaskField;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Selects only the given columns of the matching tasks as property-to-value maps in field order. No entity is
+     * hydrated, so the rows never enter the persistence context.
+     */
+    List<Map<String, Object>> findFields(Specification<Task> specification, Sort sort, int limit, Set<TaskField> fields);
+}
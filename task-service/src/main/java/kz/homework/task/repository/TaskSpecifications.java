@@ -0,0 +1,64 @@
+package kz.homework.task.repository;
+
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskSort;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class TaskSpecifications {
+
+    private static final String ID = "id";
+    private static final String STATUS = "status";
+    private static final String CREATED_AT = "createdAt";
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> hasId(Integer id) {
+        return (root, query, builder) -> builder.equal(root.get(ID), id);
+    }
+
+    public static Specification<Task> hasStatus(Status status) {
+        return (root, query, builder) -> status == null ? null : builder.equal(root.get(STATUS), status);
+    }
+
+    public static Specification<Task> createdAt(LocalDate createdAt) {
+        return (root, query, builder) -> createdAt == null ? null : builder.equal(root.get(CREATED_AT), createdAt);
+    }
+
+    /**
+     * Keyset predicate selecting the tasks that follow the cursor position in the given sort order.
+     */
+    public static Specification<Task> after(TaskCursor cursor) {
+        return (root, query, builder) -> {
+            if (cursor == null) {
+                return null;
+            }
+            return switch (cursor.sort()) {
+                case ID_ASC -> builder.greaterThan(root.get(ID), cursor.id());
+                case ID_DESC -> builder.lessThan(root.get(ID), cursor.id());
+                case CREATED_AT_ASC -> builder.or(
+                        builder.greaterThan(root.get(CREATED_AT), cursor.createdAt()),
+                        builder.and(builder.equal(root.get(CREATED_AT), cursor.createdAt()),
+                                builder.greaterThan(root.get(ID), cursor.id())));
+                case CREATED_AT_DESC -> builder.or(
+                        builder.lessThan(root.get(CREATED_AT), cursor.createdAt()),
+                        builder.and(builder.equal(root.get(CREATED_AT), cursor.createdAt()),
+                                builder.lessThan(root.get(ID), cursor.id())));
+            };
+        };
+    }
+
+    public static Sort orderBy(TaskSort sort) {
+        return switch (sort) {
+            case ID_ASC -> Sort.by(Sort.Direction.ASC, ID);
+            case ID_DESC -> Sort.by(Sort.Direction.DESC, ID);
+            case CREATED_AT_ASC -> Sort.by(Sort.Direction.ASC, CREATED_AT, ID);
+            case CREATED_AT_DESC -> Sort.by(Sort.Direction.DESC, CREATED_AT, ID);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package kz.homework.task.search;
+
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Task matching a search with its relevance. The last hit of a page is handed to clients as the opaque cursor of the
+ * next one.
+ */
+public record SearchHit(int id, double score) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = score + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchHit decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = raw.split("\\" + SEPARATOR, -1);
+            if (values.length != 2) {
+                throw new ApiException(ApiError.BAD_CURSOR);
+            }
+            return new SearchHit(Integer.parseInt(values[1]), Double.parseDouble(values[0]));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ApiError.BAD_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package kz.homework.task.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over task titles and descriptions. Text is split into lower-case runs of letters and digits, every
+ * term maps to the tasks containing it with the number of occurrences, and matches are ranked with BM25. A term in
+ * the title counts {@value #TITLE_WEIGHT} times. A query matches tasks containing any of its terms, tasks containing
+ * more of them rank higher.
+ * <p>
+ * Thread-safe: searches share a read lock, writes take the write lock for the single task they change.
+ */
+public class TaskSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Best hit first, ties broken by the lower id so that the order is total and usable as a cursor.
+     */
+    static final Comparator<SearchHit> RANK = Comparator.comparingDouble(SearchHit::score).reversed()
+            .thenComparingInt(SearchHit::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private long postingCount;
+    private long totalLength;
+
+    /**
+     * Adds the task or replaces its previous text.
+     */
+    public void put(int id, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(title, TITLE_WEIGHT, frequencies) + count(description, 1, frequencies);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            }
+            documents.put(id, new Document(frequencies.keySet().toArray(String[]::new), length));
+            postingCount += frequencies.size();
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            postingCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param after last hit of the previous page or {@code null} for the first page
+     * @return at most {@code limit} hits ranked after {@code after}, best first
+     */
+    public List<SearchHit> search(String query, SearchHit after, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, RANK.reversed());
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Integer, Integer> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+            for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+                SearchHit hit = new SearchHit(score.getKey(), score.getValue());
+                if (after != null && RANK.compare(hit, after) <= 0) {
+                    continue;
+                }
+                top.add(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(RANK);
+        return hits;
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingCount() {
+        lock.readLock().lock();
+        try {
+            return postingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private void removeDocument(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Integer, Integer> matches = postings.get(term);
+            matches.remove(id);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        postingCount -= document.terms().length;
+        totalLength -= document.length();
+    }
+
+    /**
+     * Distinct terms of a task, needed to find its postings again on update and delete, and its weighted length.
+     */
+    private record Document(String[] terms, int length) {
+    }
+}
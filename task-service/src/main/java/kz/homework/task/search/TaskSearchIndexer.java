@@ -0,0 +1,141 @@
+package kz.homework.task.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import kz.homework.task.entity.Task;
+import kz.homework.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link TaskSearchIndex} in step with the tasks table. The index is rebuilt from {@link TaskRepository}
+ * before the application starts serving, and every write is applied after its transaction commits, so a rolled back
+ * write never becomes searchable.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndexer implements SmartInitializingSingleton {
+
+    /**
+     * Name of the search latency timer.
+     */
+    public static final String SEARCH_TIMER = "task.search";
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer searchTimer;
+
+    public TaskSearchIndexer(TaskRepository taskRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // also runs after a commit, where the finished transaction is still bound to the thread
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.searchTimer = Timer.builder(SEARCH_TIMER)
+                .description("Time to rank the tasks matching a search query")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.documents", index, TaskSearchIndex::documentCount)
+                .description("Tasks in the search index")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.terms", index, TaskSearchIndex::termCount)
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+        Gauge.builder("task.search.index.postings", index, TaskSearchIndex::postingCount)
+                .description("Task and term pairs in the search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        index.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+                tasks.forEach(task -> {
+                    index.put(task.getId(), task.getTitle(), task.getDescription());
+                    entityManager.detach(task);
+                });
+            }
+        });
+        log.info("Search index rebuilt with {} tasks and {} terms in {} ms", index.documentCount(), index.termCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(Task task) {
+        Integer id = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        afterCommit(() -> index.put(id, title, description));
+    }
+
+    public void remove(Integer id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    public void remove(Collection<Integer> ids) {
+        afterCommit(() -> ids.forEach(index::remove));
+    }
+
+    /**
+     * Removes those of the tasks that no longer exist once the transaction commits, for a write that deleted tasks
+     * without knowing which. A task deleted by it that is not among the ids stays indexed and is skipped by searches.
+     */
+    public void removeMissing(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Set<Integer> kept = new HashSet<>(ids.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+                    kept.addAll(taskRepository.findIdsByIdIn(ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK_SIZE))));
+                }
+            });
+            ids.stream().filter(id -> !kept.contains(id)).forEach(index::remove);
+        });
+    }
+
+    /**
+     * @see TaskSearchIndex#search
+     */
+    public List<SearchHit> search(String query, SearchHit after, int limit) {
+        return searchTimer.record(() -> index.search(query, after, limit));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -1,21 +1,100 @@
 package kz.homework.task.service;
 
 import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskField;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskPatchRequest;
 import kz.homework.task.model.TaskRequest;
 import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface TaskService {
 
     TaskResponse createTask(TaskRequest taskRequest);
 
-    List<TaskResponse> getTasks(Status status, LocalDate createdAt);
+    /**
+     * Creates every valid task of the batch in one transaction with batched inserts. Invalid items are reported
+     * per index and do not prevent the others from being created.
+     */
+    List<TaskBatchResult> createTasks(List<TaskRequest> taskRequests);
+
+    /**
+     * @param cursor position decoded with {@link TaskCursor#decode} for the same sort, {@code null} for the first page
+     */
+    TaskPage<TaskResponse> getTasks(Status status, LocalDate createdAt, TaskSort sort, TaskCursor cursor, int limit);
+
+    /**
+     * Entity tag of the {@link #getTasks} result for the filter. It is read before the page, so a write racing with
+     * the read can only make the tag older than the page, never newer.
+     */
+    String getTasksETag(Status status, LocalDate createdAt);
+
+    /**
+     * Entity tag of a task at the given version. It starts with the same instance epoch as {@link #getTasksETag}, so a
+     * tag from before a restart never matches a task that reuses the id and version in a fresh in-memory database.
+     */
+    String getTaskETag(long version);
+
+    /**
+     * Task version of an entity tag returned by {@link #getTaskETag}.
+     *
+     * @throws kz.homework.task.exception.ApiException {@code PRECONDITION_FAILED} when the tag was not issued by this instance
+     */
+    long getTaskVersion(String eTag);
+
+    /**
+     * Same page as {@link #getTasks} restricted to the given fields, selected by a projection query.
+     */
+    TaskPage<Map<String, Object>> getTaskFields(Status status, LocalDate createdAt, TaskSort sort, TaskCursor cursor, int limit, Set<TaskField> fields);
+
+    /**
+     * Streams every task matching the filter to the consumer in id order without materializing the result.
+     */
+    void exportTasks(Status status, LocalDate createdAt, Consumer<TaskResponse> consumer);
+
+    /**
+     * Ranked page of the tasks whose title or description contains any word of the query, served from the in-process
+     * search index.
+     */
+    TaskPage<TaskResponse> searchTasks(String query, String cursor, int limit);
 
     TaskResponse getTaskResponseById(Integer id);
 
-    TaskResponse updateTask(Integer id, TaskRequest taskRequest);
+    Map<String, Object> getTaskFieldsById(Integer id, Set<TaskField> fields);
+
+    /**
+     * @param expectedVersion version the client has seen, {@code null} to update unconditionally
+     */
+    TaskResponse updateTask(Integer id, TaskRequest taskRequest, Long expectedVersion);
+
+    /**
+     * Applies the fields present in the request with one conditional UPDATE, without loading the task first.
+     * Fails with {@code VERSION_CONFLICT} when the task is no longer at the version of the request.
+     */
+    TaskResponse patchTask(Integer id, TaskPatchRequest taskPatchRequest);
 
     void deleteTask(Integer id);
+
+    /**
+     * Moves every task in status {@code from}, optionally created on {@code createdAt}, to status {@code to}
+     * with a single UPDATE statement.
+     *
+     * @return number of updated tasks
+     */
+    int updateStatuses(Status from, LocalDate createdAt, Status to);
+
+    /**
+     * Deletes every task in the given status with a single DELETE statement.
+     *
+     * @return number of deleted tasks
+     */
+    int deleteTasks(Status status);
 }
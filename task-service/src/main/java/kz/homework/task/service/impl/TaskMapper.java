@@ -0,0 +1,32 @@
+package kz.homework.task.service.impl;
+
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.TaskResponse;
+
+import java.util.List;
+
+/**
+ * Maps task entities to API responses for {@link TaskServiceImpl}.
+ */
+final class TaskMapper {
+
+    private TaskMapper() {
+    }
+
+    static List<TaskResponse> toTaskResponses(List<Task> tasks) {
+        return tasks.stream()
+                .map(TaskMapper::toTaskResponse)
+                .toList();
+    }
+
+    static TaskResponse toTaskResponse(Task task) {
+        TaskResponse taskResponse = new TaskResponse();
+        taskResponse.setId(task.getId());
+        taskResponse.setDescription(task.getDescription());
+        taskResponse.setTitle(task.getTitle());
+        taskResponse.setStatus(task.getStatus());
+        taskResponse.setCreatedAt(task.getCreatedAt());
+        taskResponse.setVersion(task.getVersion());
+        return taskResponse;
+    }
+}
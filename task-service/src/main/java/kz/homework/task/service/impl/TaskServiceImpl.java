@@ -1,26 +1,81 @@
 package kz.homework.task.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import kz.homework.task.cache.TaskQueryCache;
+import kz.homework.task.config.CacheConfig;
+import kz.homework.task.config.MetricsConfig;
 import kz.homework.task.entity.Task;
+import kz.homework.task.events.TaskEvent;
+import kz.homework.task.events.TaskEventBroadcaster;
 import kz.homework.task.exception.ApiError;
-import kz.homework.task.exception.ApiException;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.ingest.TaskCreateBatcher;
 import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskField;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskPatchRequest;
 import kz.homework.task.model.TaskRequest;
 import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
 import kz.homework.task.repository.TaskRepository;
+import kz.homework.task.search.SearchHit;
+import kz.homework.task.search.TaskSearchIndexer;
 import kz.homework.task.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static kz.homework.task.repository.TaskSpecifications.after;
+import static kz.homework.task.repository.TaskSpecifications.createdAt;
+import static kz.homework.task.repository.TaskSpecifications.hasId;
+import static kz.homework.task.repository.TaskSpecifications.hasStatus;
+import static kz.homework.task.repository.TaskSpecifications.orderBy;
+import static kz.homework.task.service.impl.TaskMapper.toTaskResponse;
+import static kz.homework.task.service.impl.TaskMapper.toTaskResponses;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    /**
+     * Ids per delete statement of a bulk delete, keeps the IN lists of a large status at a reasonable size.
+     */
+
     private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TaskQueryCache taskQueryCache;
+    private final TaskSearchIndexer taskSearchIndexer;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskCreateBatcher taskCreateBatcher;
 
     public TaskResponse createTask(TaskRequest createTaskRequest) {
         log.info("Creating task with title: {}", createTaskRequest.getTitle());
@@ -30,80 +85,341 @@ public class TaskServiceImpl implements TaskService {
         if (createTaskRequest.getStatus() != null) {
             task.setStatus(createTaskRequest.getStatus());
         }
-        Task savedTask = taskRepository.save(task);
+        // with group commit the task is inserted together with concurrent creates and returned once that batch committed
+        Task savedTask = taskCreateBatcher.isEnabled() ? taskCreateBatcher.save(task) : taskRepository.save(task);
+        taskQueryCache.invalidate(savedTask.getStatus(), savedTask.getCreatedAt());
+        taskSearchIndexer.index(savedTask);
+        taskEventBroadcaster.publish(TaskEvent.Type.CREATED, savedTask.getId(), toTaskResponse(savedTask), Set.of(savedTask.getStatus()));
         TaskResponse taskResponse = new TaskResponse(createTaskRequest);
         taskResponse.setCreatedAt(savedTask.getCreatedAt());
         taskResponse.setId(savedTask.getId());
+        taskResponse.setVersion(savedTask.getVersion());
 
         log.info("Task created with title \"{}\" created with ID: {}", createTaskRequest.getTitle(), savedTask.getId());
         return taskResponse;
     }
 
-    public List<TaskResponse> getTasks(Status status, LocalDate createdAt) {
-        log.info("Fetching tasks with status: {} and createdAt: {}", status, createdAt);
-        List<TaskResponse> taskResponses;
+    @Transactional
+    public List<TaskBatchResult> createTasks(List<TaskRequest> taskRequests) {
+        log.info("Creating batch of {} tasks", taskRequests.size());
+        TaskBatchResult[] results = new TaskBatchResult[taskRequests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskRequests.size(); i++) {
+            TaskRequest taskRequest = taskRequests.get(i);
+            Map<String, Object> errors = validate(taskRequest);
+            if (!errors.isEmpty()) {
+                ErrorResponse errorResponse = new ErrorResponse(ApiError.BAD_REQUEST.name(), "invalid data");
+                errorResponse.setData(errors);
+                results[i] = TaskBatchResult.rejected(i, ApiError.BAD_REQUEST.getStatus(), errorResponse);
+                continue;
+            }
+            Task task = new Task();
+            task.setTitle(taskRequest.getTitle());
+            task.setDescription(taskRequest.getDescription());
+            if (taskRequest.getStatus() != null) {
+                task.setStatus(taskRequest.getStatus());
+            }
+            indexes.add(i);
+            tasks.add(task);
+        }
+
+        // ids come from the pooled sequence, so the inserts are sent as JDBC batches on flush
+        List<Task> savedTasks = taskRepository.saveAllAndFlush(tasks);
+        Set<List<Object>> affectedFilters = new LinkedHashSet<>();
+        for (Task savedTask : savedTasks) {
+            taskSearchIndexer.index(savedTask);
+            if (affectedFilters.add(List.of(savedTask.getStatus(), savedTask.getCreatedAt()))) {
+                taskQueryCache.invalidate(savedTask.getStatus(), savedTask.getCreatedAt());
+            }
+        }
+        for (int i = 0; i < savedTasks.size(); i++) {
+            int index = indexes.get(i);
+            Task savedTask = savedTasks.get(i);
+            TaskResponse taskResponse = toTaskResponse(savedTask);
+            results[index] = TaskBatchResult.created(index, taskResponse);
+            taskEventBroadcaster.publish(TaskEvent.Type.CREATED, savedTask.getId(), taskResponse, Set.of(savedTask.getStatus()));
+        }
+
+        log.info("Batch created {} of {} tasks", savedTasks.size(), taskRequests.size());
+        return List.of(results);
+    }
+
+    private Map<String, Object> validate(TaskRequest taskRequest) {
+        Map<String, Object> errors = new HashMap<>();
+        if (taskRequest == null) {
+            errors.put("task", "must not be null");
+            return errors;
+        }
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(taskRequest);
+        for (ConstraintViolation<TaskRequest> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    public TaskPage<TaskResponse> getTasks(Status status, LocalDate createdAt, TaskSort sort, TaskCursor cursor, int limit) {
+        log.info("Fetching tasks with status: {}, createdAt: {}, sort: {} and limit: {}", status, createdAt, sort, limit);
+        TaskPage<TaskResponse> page = taskQueryCache.get(status, createdAt, sort, cursor, limit, null,
+                () -> findTasks(status, createdAt, sort, cursor, limit));
+        log.info("Found {} tasks", page.getItems().size());
+        return page;
+    }
+
+    private TaskPage<TaskResponse> findTasks(Status status, LocalDate createdAt, TaskSort sort, TaskCursor position, int limit) {
+        Specification<Task> specification = filter(status, createdAt, position);
+        // one extra row tells whether there is a next page without a count query
+        List<Task> tasks = taskRepository.findBy(specification, query -> query.sortBy(orderBy(sort)).limit(limit + 1).all());
+
+        String next = null;
+        if (tasks.size() > limit) {
+            tasks = tasks.subList(0, limit);
+            Task last = tasks.getLast();
+            next = new TaskCursor(sort, last.getCreatedAt(), last.getId()).encode();
+        }
+        return new TaskPage<>(toTaskResponses(tasks), next);
+    }
+
+    public String getTasksETag(Status status, LocalDate createdAt) {
+        return taskQueryCache.tag(status, createdAt);
+    }
+
+    public String getTaskETag(long version) {
+        return taskQueryCache.getEpoch() + "-" + version;
+    }
+
+    public long getTaskVersion(String eTag) {
+        String prefix = taskQueryCache.getEpoch() + "-";
+        if (!eTag.startsWith(prefix)) {
+            throw StacklessApiException.of(ApiError.PRECONDITION_FAILED);
+        }
+        try {
+            return Long.parseLong(eTag, prefix.length(), eTag.length(), 10);
+        } catch (NumberFormatException e) {
+            throw StacklessApiException.of(ApiError.PRECONDITION_FAILED);
+        }
+    }
+
+    public TaskPage<Map<String, Object>> getTaskFields(Status status, LocalDate createdAt, TaskSort sort, TaskCursor cursor, int limit, Set<TaskField> fields) {
+        log.info("Fetching fields {} of tasks with status: {}, createdAt: {}, sort: {} and limit: {}", fields, status, createdAt, sort, limit);
+        TaskPage<Map<String, Object>> page = taskQueryCache.get(status, createdAt, sort, cursor, limit, fields,
+                () -> findTaskFields(status, createdAt, sort, cursor, limit, fields));
+        log.info("Found {} tasks", page.getItems().size());
+        return page;
+    }
+
+    private TaskPage<Map<String, Object>> findTaskFields(Status status, LocalDate createdAt, TaskSort sort, TaskCursor position, int limit, Set<TaskField> fields) {
+        // the keyset columns of the last row are needed for the next cursor even when they were not requested
+        Set<TaskField> selected = EnumSet.copyOf(fields);
+        selected.add(TaskField.ID);
+        if (sort == TaskSort.CREATED_AT_ASC || sort == TaskSort.CREATED_AT_DESC) {
+            selected.add(TaskField.CREATED_AT);
+        }
+        List<Map<String, Object>> rows = taskRepository.findFields(filter(status, createdAt, position), orderBy(sort), limit + 1, selected);
+
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Map<String, Object> last = rows.getLast();
+            next = new TaskCursor(sort, (LocalDate) last.get(TaskField.CREATED_AT.getProperty()), (Integer) last.get(TaskField.ID.getProperty())).encode();
+        }
+        return new TaskPage<>(restrict(rows, fields, selected), next);
+    }
+
+    private static Specification<Task> filter(Status status, LocalDate createdAt, TaskCursor position) {
+        return Specification.where(hasStatus(status))
+                .and(createdAt(createdAt))
+                .and(after(position));
+    }
+
+    private static List<Map<String, Object>> restrict(List<Map<String, Object>> rows, Set<TaskField> fields, Set<TaskField> selected) {
+        Set<TaskField> extra = EnumSet.copyOf(selected);
+        extra.removeAll(fields);
+        return rows.stream()
+                .map(row -> {
+                    extra.forEach(field -> row.remove(field.getProperty()));
+                    return Collections.unmodifiableMap(row);
+                })
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTasks(Status status, LocalDate createdAt, Consumer<TaskResponse> consumer) {
+        log.info("Exporting tasks with status: {} and createdAt: {}", status, createdAt);
+        long count = 0;
+        try (Stream<Task> tasks = streamTasks(status, createdAt)) {
+            for (Task task : (Iterable<Task>) tasks::iterator) {
+                consumer.accept(toTaskResponse(task));
+                // keep the persistence context flat while scrolling through the result
+                entityManager.detach(task);
+                count++;
+            }
+        }
+        log.info("Exported {} tasks", count);
+    }
+
+    private Stream<Task> streamTasks(Status status, LocalDate createdAt) {
         if (status == null && createdAt == null) {
-            taskResponses = mapToTaskResponse(taskRepository.findAll());
+            return taskRepository.streamAllByOrderByIdAsc();
         } else if (status != null && createdAt != null) {
-            taskResponses = mapToTaskResponse(taskRepository.findByStatusAndCreatedAt(status, createdAt));
+            return taskRepository.streamByStatusAndCreatedAtOrderByIdAsc(status, createdAt);
         } else if (status != null) {
-            taskResponses = mapToTaskResponse(taskRepository.findByStatus(status));
+            return taskRepository.streamByStatusOrderByIdAsc(status);
         } else {
-            taskResponses = mapToTaskResponse(taskRepository.findByCreatedAt(createdAt));
+            return taskRepository.streamByCreatedAtOrderByIdAsc(createdAt);
+        }
+    }
+
+    public TaskPage<TaskResponse> searchTasks(String query, String cursor, int limit) {
+        log.info("Searching tasks for \"{}\" with limit: {}", query, limit);
+        SearchHit after = cursor == null ? null : SearchHit.decode(cursor);
+        // one extra hit tells whether there is a next page
+        List<SearchHit> hits = taskSearchIndexer.search(query, after, limit + 1);
+
+        String next = null;
+        if (hits.size() > limit) {
+            hits = hits.subList(0, limit);
+            next = hits.getLast().encode();
         }
-        log.info("Found {} tasks", taskResponses.size());
-        return taskResponses;
+        Map<Integer, Task> tasks = taskRepository.findAllById(hits.stream().map(SearchHit::id).toList()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        // a task deleted after the index was searched is missing here and skipped
+        List<TaskResponse> items = hits.stream()
+                .map(hit -> tasks.get(hit.id()))
+                .filter(Objects::nonNull)
+                .map(TaskMapper::toTaskResponse)
+                .toList();
+        log.info("Found {} tasks", items.size());
+        return new TaskPage<>(items, next);
     }
 
+    // not sync: a synchronized load waits for a connection inside the cache's lock and can starve the pool
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public TaskResponse getTaskResponseById(Integer id) {
         log.info("Fetching task with ID: {}", id);
-        return mapToTaskResponse(getTaskById(id));
+        return toTaskResponse(getTaskById(id));
+    }
+
+    public Map<String, Object> getTaskFieldsById(Integer id, Set<TaskField> fields) {
+        log.info("Fetching fields {} of task with ID: {}", fields, id);
+        List<Map<String, Object>> rows = taskRepository.findFields(hasId(id), Sort.unsorted(), 1, fields);
+        if (rows.isEmpty()) {
+            throw StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+        }
+        return rows.getFirst();
     }
 
     private Task getTaskById(Integer id) {
         return taskRepository.findById(id)
-                .orElseThrow(() -> new ApiException(ApiError.RESOURCE_NOT_FOUND));
+                .orElseThrow(() -> StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND));
     }
 
-    public TaskResponse updateTask(Integer id, TaskRequest taskRequest) {
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public TaskResponse updateTask(Integer id, TaskRequest taskRequest, Long expectedVersion) {
         log.info("Updating task with ID: {}", id);
         Task task = getTaskById(id);
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            log.warn("Task with ID: {} has version {}, expected {}", id, task.getVersion(), expectedVersion);
+            throw StacklessApiException.of(ApiError.PRECONDITION_FAILED);
+        }
+        Status previousStatus = task.getStatus();
         task.setTitle(taskRequest.getTitle());
         task.setDescription(taskRequest.getDescription());
         task.setStatus(taskRequest.getStatus());
-        taskRepository.save(task);
+        // the task is still managed, the flush writes it without loading it again and assigns the new version
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskQueryCache.invalidate(previousStatus, task.getCreatedAt());
+        taskSearchIndexer.index(savedTask);
+        if (task.getStatus() != previousStatus) {
+            taskQueryCache.invalidate(task.getStatus(), task.getCreatedAt());
+        }
 
         TaskResponse taskResponse = new TaskResponse(taskRequest);
         taskResponse.setId(task.getId());
         taskResponse.setCreatedAt(task.getCreatedAt());
+        taskResponse.setVersion(savedTask.getVersion());
+        taskEventBroadcaster.publish(TaskEvent.Type.UPDATED, id, taskResponse, EnumSet.of(previousStatus, task.getStatus()));
         log.info("Task with ID: {} updated successfully", task.getId());
         return taskResponse;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public TaskResponse patchTask(Integer id, TaskPatchRequest taskPatchRequest) {
+        log.info("Patching task with ID: {} at version {}", id, taskPatchRequest.getVersion());
+        int updated = taskRepository.patch(id, taskPatchRequest.getVersion(),
+                taskPatchRequest.getTitle(), taskPatchRequest.getDescription(), taskPatchRequest.getStatus());
+        if (updated == 0) {
+            // only the failure path pays for telling a missing task from a stale version
+            if (!taskRepository.existsById(id)) {
+                throw StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+            }
+            log.warn("Task with ID: {} is no longer at version {}", id, taskPatchRequest.getVersion());
+            throw StacklessApiException.of(ApiError.VERSION_CONFLICT);
+        }
+        Task task = getTaskById(id);
+        // the previous status is not known without reading it, so a status change invalidates every status of the day
+        taskQueryCache.invalidate(taskPatchRequest.getStatus() == null ? task.getStatus() : null, task.getCreatedAt());
+        taskSearchIndexer.index(task);
+        TaskResponse taskResponse = toTaskResponse(task);
+        // likewise subscribers of the previous status cannot be told apart, a status change reaches them all
+        taskEventBroadcaster.publish(TaskEvent.Type.UPDATED, id, taskResponse,
+                taskPatchRequest.getStatus() == null ? Set.of(task.getStatus()) : EnumSet.allOf(Status.class));
+        log.info("Task with ID: {} patched to version {}", id, task.getVersion());
+        return taskResponse;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public void deleteTask(Integer id) {
         log.info("Deleting task with ID: {}", id);
-        if (!taskRepository.existsById(id)) {
+        // the loaded task tells which cached filters are affected, it stays managed in this transaction, so delete(task)
+        // removes it without loading it again
+        Task task = taskRepository.findById(id).orElseThrow(() -> {
             log.error("Task with ID: {} not found", id);
-            throw new ApiException(ApiError.RESOURCE_NOT_FOUND);
-        }
-        taskRepository.deleteById(id);
+            return StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+        });
+        taskRepository.delete(task);
+        taskQueryCache.invalidate(task.getStatus(), task.getCreatedAt());
+        taskSearchIndexer.remove(id);
+        taskEventBroadcaster.publish(TaskEvent.Type.DELETED, id, null, Set.of(task.getStatus()));
         log.info("Task with ID: {} deleted successfully", id);
     }
 
-    private List<TaskResponse> mapToTaskResponse(List<Task> tasks) {
-        return tasks.stream()
-                .map(this::mapToTaskResponse)
-                .toList();
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+    public int updateStatuses(Status from, LocalDate createdAt, Status to) {
+        log.info("Updating status of tasks with status: {} and createdAt: {} to {}", from, createdAt, to);
+        if (from == to) {
+            return 0;
+        }
+        int updated = createdAt == null
+                ? taskRepository.updateStatus(from, to)
+                : taskRepository.updateStatusByCreatedAt(from, createdAt, to);
+        taskQueryCache.invalidate(from, createdAt);
+        taskQueryCache.invalidate(to, createdAt);
+        if (updated > 0) {
+            taskEventBroadcaster.publish(TaskEvent.Type.BULK_CHANGED, null, null, EnumSet.of(from, to));
+        }
+        log.info("Updated status of {} tasks", updated);
+        return updated;
     }
 
-    private TaskResponse mapToTaskResponse(Task task) {
-        TaskResponse taskResponse = new TaskResponse();
-        taskResponse.setId(task.getId());
-        taskResponse.setDescription(task.getDescription());
-        taskResponse.setTitle(task.getTitle());
-        taskResponse.setStatus(task.getStatus());
-        taskResponse.setCreatedAt(task.getCreatedAt());
-        return taskResponse;
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+    public int deleteTasks(Status status) {
+        log.info("Deleting tasks with status: {}", status);
+        // a task read here may leave the status before the DELETE, the index only drops those that are gone after it
+        List<Integer> candidates = taskRepository.findIdsByStatus(status);
+        int deleted = taskRepository.deleteAllByStatus(status);
+        taskQueryCache.invalidate(status, null);
+        taskSearchIndexer.removeMissing(candidates);
+        if (deleted > 0) {
+            taskEventBroadcaster.publish(TaskEvent.Type.BULK_CHANGED, null, null, Set.of(status));
+        }
+        log.info("Deleted {} tasks", deleted);
+        return deleted;
     }
 
 }
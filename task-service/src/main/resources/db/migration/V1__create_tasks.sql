@@ -0,0 +1,15 @@
+create sequence tasks_seq start with 1 increment by 50;
+
+create table tasks (
+    id integer not null,
+    title varchar(255),
+    description varchar(1000),
+    status varchar(255) not null,
+    created_at date,
+    version bigint not null,
+    primary key (id)
+);
+
+create index idx_tasks_status_id on tasks (status, id);
+create index idx_tasks_created_at_id on tasks (created_at, id);
+create index idx_tasks_status_created_at_id on tasks (status, created_at, id);
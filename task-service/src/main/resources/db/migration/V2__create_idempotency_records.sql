@@ -0,0 +1,9 @@
+create table idempotency_records (
+    id varchar(300) not null,
+    fingerprint varchar(64) not null,
+    response clob not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_idempotency_records_expires_at on idempotency_records (expires_at);
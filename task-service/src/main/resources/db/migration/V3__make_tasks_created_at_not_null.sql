@@ -0,0 +1,4 @@
+-- keyset pagination by created_at cannot position a page on a missing date
+update tasks set created_at = current_date where created_at is null;
+
+alter table tasks alter column created_at set not null;
@@ -0,0 +1,80 @@
+package kz.homework.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ErrorResponse;
+import kz.homework.task.exception.StacklessApiException;
+import kz.homework.task.handler.ControllerExceptionHandler;
+import kz.homework.task.model.TaskRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ControllerExceptionHandlerTest {
+
+    private final ControllerExceptionHandler handler = new ControllerExceptionHandler(new SimpleMeterRegistry());
+
+    @Test
+    void handleApiExceptions_ShouldReuseTemplateResponse_ForStacklessException() {
+        StacklessApiException exception = StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+
+        ResponseEntity<ErrorResponse> first = handler.handleApiExceptions(exception);
+        ResponseEntity<ErrorResponse> second = handler.handleApiExceptions(StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND));
+
+        assertSame(first, second);
+        assertSame(exception, StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND));
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+        assertEquals("resource_not_found", first.getBody().getCode());
+        assertEquals("tasks-service", first.getBody().getOrigin());
+        assertThrows(UnsupportedOperationException.class, () -> first.getBody().setDescription("changed"));
+    }
+
+    @Test
+    void handleApiExceptions_ShouldStampTemplateResponse_WhenItIsWritten() throws Exception {
+        ErrorResponse body = handler.handleApiExceptions(StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND)).getBody();
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(body);
+
+        assertEquals("resource_not_found", json.get("code").asText());
+        assertFalse(json.get("timestamp").isNull());
+    }
+
+    @Test
+    void set_ShouldFailWithClearMessage_OnSharedException() {
+        StacklessApiException exception = StacklessApiException.of(ApiError.RESOURCE_NOT_FOUND);
+
+        UnsupportedOperationException failure = assertThrows(UnsupportedOperationException.class,
+                () -> exception.set("id", 1));
+
+        assertTrue(failure.getMessage().contains("RESOURCE_NOT_FOUND"));
+        assertThrows(UnsupportedOperationException.class, () -> exception.setErrors(Map.of("id", 1)));
+        assertNull(exception.getErrorResponse().getData());
+    }
+
+    @Test
+    void handleMapperErrors_ShouldReportRejectedEnumValue() throws Exception {
+        InvalidFormatException cause = assertThrows(InvalidFormatException.class, () -> new ObjectMapper()
+                .readValue("{\"title\":\"Task\",\"status\":\"UNKNOWN\"}", TaskRequest.class));
+
+        ResponseEntity<ErrorResponse> response = handler.handleMapperErrors(
+                new HttpMessageNotReadableException("JSON parse error", cause, new MockHttpInputMessage(new byte[0])));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("invalid value UNKNOWN", response.getBody().getDescription());
+    }
+}
@@ -0,0 +1,166 @@
+package kz.homework.task;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.entity.IdempotencyRecord;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+import kz.homework.task.idempotency.IdempotencyProperties;
+import kz.homework.task.idempotency.IdempotencyStore;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final TypeReference<TaskResponse> TASK_RESPONSE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void execute_ShouldRunOnce_WhenDuplicateArrivesWhileFirstIsRunning() throws Exception {
+        IdempotencyStore store = store();
+        TaskRequest request = new TaskRequest("Report", "Weekly", Status.NEW);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<IdempotencyStore.Outcome<TaskResponse>> first = callers.submit(() -> store.execute("create", "key-1", request, TASK_RESPONSE, () -> {
+                started.countDown();
+                await(release);
+                return created(request);
+            }));
+            started.await();
+            Future<IdempotencyStore.Outcome<TaskResponse>> duplicate = callers.submit(() -> store.execute("create", "key-1", request, TASK_RESPONSE, () -> created(request)));
+            release.countDown();
+
+            assertFalse(first.get().replayed());
+            assertTrue(duplicate.get().replayed());
+            assertSame(first.get().response(), duplicate.get().response());
+        }
+        assertEquals(1, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void execute_ShouldKeepRunningKey_WhenOverMaxKeys() throws Exception {
+        properties.setMaxKeys(1);
+        IdempotencyStore store = store();
+        TaskRequest request = new TaskRequest("Report", "Weekly", Status.NEW);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<IdempotencyStore.Outcome<TaskResponse>> first = callers.submit(() -> store.execute("create", "key-1", request, TASK_RESPONSE, () -> {
+                started.countDown();
+                await(release);
+                return created(request);
+            }));
+            started.await();
+            // another key arriving at the limit must not push out the running one
+            assertFalse(store.execute("create", "key-2", request, TASK_RESPONSE, () -> created(request)).replayed());
+            AtomicReference<IdempotencyStore.Outcome<TaskResponse>> duplicate = new AtomicReference<>();
+            Thread retry = Thread.ofPlatform().start(() -> duplicate.set(store.execute("create", "key-1", request, TASK_RESPONSE, () -> created(request))));
+            // released only once the retry waits for the first request, or has run itself
+            while (retry.getState() != Thread.State.WAITING && retry.getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            retry.join();
+
+            assertFalse(first.get().replayed());
+            assertTrue(duplicate.get().replayed());
+            assertSame(first.get().response(), duplicate.get().response());
+        }
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReuse_AndForgetFailedRequests() {
+        IdempotencyStore store = store();
+        TaskRequest request = new TaskRequest("Report", "Weekly", Status.NEW);
+        store.execute("create", "key-1", request, TASK_RESPONSE, () -> created(request));
+
+        ApiException reused = assertThrows(ApiException.class, () -> store.execute("create", "key-1",
+                new TaskRequest("Other", "Weekly", Status.NEW), TASK_RESPONSE, () -> created(request)));
+        assertEquals(ApiError.IDEMPOTENCY_KEY_REUSED, reused.getApiError());
+
+        assertThrows(IllegalStateException.class, () -> store.execute("create", "key-2", request, TASK_RESPONSE, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertFalse(store.execute("create", "key-2", request, TASK_RESPONSE, () -> created(request)).replayed());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_ShouldReplayResponseFromTable_AfterRestart() {
+        properties.setPersistent(true);
+        List<TaskRequest> requests = List.of(new TaskRequest("Report", "Weekly", Status.NEW));
+        TypeReference<List<TaskBatchResult>> type = new TypeReference<>() {
+        };
+        store().execute("batch", "key-1", requests, type, () -> List.of(TaskBatchResult.created(0, created(requests.getFirst()))));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        when(repository.findById("batch:key-1")).thenReturn(Optional.of(saved.getValue()));
+
+        IdempotencyStore.Outcome<List<TaskBatchResult>> outcome = store().execute("batch", "key-1", requests, type,
+                () -> List.of(TaskBatchResult.created(0, created(requests.getFirst()))));
+
+        assertTrue(outcome.replayed());
+        assertEquals(1, executions.get());
+        TaskBatchResult result = outcome.response().getFirst();
+        assertEquals(201, result.getStatus());
+        assertEquals(1, result.getTask().getId());
+        assertEquals("Report", result.getTask().getTitle());
+    }
+
+    private IdempotencyStore store() {
+        return new IdempotencyStore(properties, repository, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private TaskResponse created(TaskRequest request) {
+        TaskResponse response = new TaskResponse(request);
+        response.setId(executions.incrementAndGet());
+        response.setCreatedAt(LocalDate.of(2024, 1, 1));
+        response.setVersion(0L);
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
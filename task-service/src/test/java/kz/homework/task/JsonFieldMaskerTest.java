@@ -0,0 +1,50 @@
+package kz.homework.task;
+
+import kz.homework.task.filter.JsonFieldMasker;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonFieldMaskerTest {
+
+    private final JsonFieldMasker masker = new JsonFieldMasker(List.of("fileContents", "password"), 64);
+
+    @Test
+    void mask_ShouldReplaceStringValue_WhenFieldIsMasked() {
+        assertEquals("{\"title\":\"a\",\"fileContents\" : \"***\"}", masker.mask("{\"title\":\"a\",\"fileContents\" : \"c2VjcmV0\"}"));
+    }
+
+    @Test
+    void mask_ShouldReplaceWholeValue_WhenValueIsNotAString() {
+        assertEquals("{\"password\":\"***\",\"fileContents\":\"***\",\"id\":1}",
+                masker.mask("{\"password\":12345,\"fileContents\":{\"a\":[\"}\",2]},\"id\":1}"));
+    }
+
+    @Test
+    void mask_ShouldKeepValue_WhenMaskedNameIsAValue() {
+        assertEquals("{\"name\":\"password\",\"id\":1}", masker.mask("{\"name\":\"password\",\"id\":1}"));
+    }
+
+    @Test
+    void mask_ShouldHandleEscapedQuotes() {
+        assertEquals("{\"title\":\"say \\\"password\\\"\",\"password\":\"***\"}",
+                masker.mask("{\"title\":\"say \\\"password\\\"\",\"password\":\"p\\\"w\"}"));
+    }
+
+    @Test
+    void mask_ShouldDecodeUtf8() {
+        assertEquals("{\"title\":\"задача\"}", masker.mask("{\"title\":\"задача\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void mask_ShouldTruncateOnCharacterBoundary_WhenBodyIsTooLarge() {
+        String body = "{\"title\":\"" + "ж".repeat(100) + "\"}";
+
+        String masked = masker.mask(body);
+
+        assertEquals("{\"title\":\"" + "ж".repeat(27) + "...[truncated, 212 bytes total]", masked);
+    }
+}
@@ -0,0 +1,183 @@
+package kz.homework.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import kz.homework.task.filter.LogEntryFactory;
+import kz.homework.task.filter.LoggerFilter;
+import kz.homework.task.filter.RequestLog;
+import kz.homework.task.filter.RequestLogProperties;
+import kz.homework.task.filter.RequestLogWriter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LoggerFilterTest {
+
+    private final RequestLogProperties properties = new RequestLogProperties();
+    private final RequestLogWriter requestLogWriter = mock(RequestLogWriter.class);
+
+    @Test
+    void doFilter_ShouldQueueEntryWithBodies_ByDefault() throws Exception {
+        RequestLog requestLog = filter(200);
+
+        assertEquals("/api/v1/tasks/1", requestLog.uri());
+        assertEquals(200, requestLog.status());
+        assertNotNull(requestLog.responseBody());
+    }
+
+    @Test
+    void doFilter_ShouldSkipEntry_WhenRouteIsNotSampled() throws Exception {
+        properties.getRoutes().put("/api/v1/tasks/*", 0.0);
+
+        loggerFilter().doFilter(request(), new MockHttpServletResponse(), chain(200));
+
+        verify(requestLogWriter, never()).write(any());
+    }
+
+    @Test
+    void doFilter_ShouldQueueErrorEntry_WhenRouteIsNotSampled() throws Exception {
+        properties.getRoutes().put("/api/v1/tasks/*", 0.0);
+
+        assertEquals(404, filter(404).status());
+    }
+
+    @Test
+    void doFilter_ShouldOmitBodies_WhenOnlyErrorBodiesAreLogged() throws Exception {
+        properties.setErrorBodiesOnly(true);
+
+        assertNull(filter(200).responseBody());
+        assertNotNull(filter(500).responseBody());
+    }
+
+    @Test
+    void doFilter_ShouldCaptureOnlyBeginningOfBodies_WhenBodiesAreLarge() throws Exception {
+        properties.setMaxBodySize(8);
+        MockHttpServletRequest request = request();
+        request.setContentType("application/json");
+        request.setContent("{\"title\":\"%s\"}".formatted("a".repeat(100)).getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        RequestLog requestLog = filter(request, response, 200);
+
+        assertEquals(8, requestLog.requestBody().head().length);
+        assertEquals(112, requestLog.requestBody().size());
+        assertEquals("{\"id\":1,\"read\":112}", response.getContentAsString());
+        assertEquals(8, requestLog.responseBody().head().length);
+        assertEquals(19, requestLog.responseBody().size());
+    }
+
+    @Test
+    void doFilter_ShouldNotCaptureBody_WhenContentTypeIsNotLogged() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setContentType("application/octet-stream");
+        request.setContent(new byte[100]);
+
+        RequestLog requestLog = filter(request, new MockHttpServletResponse(), 200);
+
+        assertEquals(0, requestLog.requestBody().size());
+    }
+
+    @Test
+    void doFilter_ShouldCaptureJsonParts_WhenHandlerReadsThem() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setContentType("multipart/form-data; boundary=b");
+        MockPart task = new MockPart("task", "{\"title\":\"a\"}".getBytes(StandardCharsets.UTF_8));
+        task.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        request.addPart(task);
+        request.addPart(new MockPart("file", "file.bin", new byte[100]));
+
+        RequestLog requestLog = filter(request, new MockHttpServletResponse(), 200);
+
+        assertEquals(Set.of("task"), requestLog.parts().keySet());
+        assertEquals(13, requestLog.parts().get("task").size());
+    }
+
+    @Test
+    void write_ShouldCountDroppedEntries_WhenQueueIsFull() {
+        properties.setQueueCapacity(1);
+        // not started, so nothing takes entries off the queue
+        RequestLogWriter writer = new RequestLogWriter(new LogEntryFactory(properties), properties, new SimpleMeterRegistry());
+        RequestLog requestLog = requestLog();
+
+        writer.write(requestLog);
+        writer.write(requestLog);
+        writer.write(requestLog);
+
+        assertEquals(2, writer.getDropped());
+    }
+
+    @Test
+    void buildLogEntry_ShouldMarkBodiesThatWereNotCaptured() {
+        String entry = new LogEntryFactory(properties).buildLogEntry(requestLog());
+
+        assertTrue(entry.contains("[not logged]"));
+    }
+
+    private LoggerFilter loggerFilter() {
+        return new LoggerFilter(new LogEntryFactory(properties), requestLogWriter, properties);
+    }
+
+    private RequestLog filter(int status) throws Exception {
+        return filter(request(), new MockHttpServletResponse(), status);
+    }
+
+    private RequestLog filter(MockHttpServletRequest request, MockHttpServletResponse response, int status) throws Exception {
+        clearInvocations(requestLogWriter);
+        loggerFilter().doFilter(request, response, chain(status));
+        ArgumentCaptor<RequestLog> captor = ArgumentCaptor.forClass(RequestLog.class);
+        verify(requestLogWriter).write(captor.capture());
+        return captor.getValue();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/1");
+        request.setRequestURI("/api/v1/tasks/1");
+        return request;
+    }
+
+    private static MockFilterChain chain(int status) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
+                long read = 0;
+                if (request.getContentType() != null && request.getContentType().startsWith("multipart/")) {
+                    for (Part part : request.getParts()) {
+                        read += part.getInputStream().readAllBytes().length;
+                    }
+                } else {
+                    read = request.getInputStream().readAllBytes().length;
+                }
+                response.setStatus(status);
+                response.setContentType("application/json");
+                response.getOutputStream().write("{\"id\":1,\"read\":%d}".formatted(read).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static RequestLog requestLog() {
+        return new RequestLog("GET", "/api/v1/tasks/1", Map.of(), Map.of(), Map.of(), null, 200, Map.of(), null);
+    }
+}
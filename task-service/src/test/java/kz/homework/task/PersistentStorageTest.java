@@ -0,0 +1,41 @@
+package kz.homework.task;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PersistentStorageTest {
+
+    @TempDir
+    private Path dataDir;
+
+    @Test
+    void tasks_ShouldSurviveRestart_WithPersistentProfile() {
+        TaskResponse created;
+        try (ConfigurableApplicationContext context = start()) {
+            created = context.getBean(TaskService.class).createTask(new TaskRequest("Durable", "Kept on disk", Status.DONE));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            TaskResponse loaded = context.getBean(TaskService.class).getTaskResponseById(created.getId());
+            assertEquals("Durable", loaded.getTitle());
+            assertEquals(Status.DONE, loaded.getStatus());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(App.class)
+                .profiles("persistent")
+                .properties("task.data-dir=" + dataDir, "server.port=0", "spring.cache.type=none")
+                .run();
+    }
+}
@@ -0,0 +1,40 @@
+package kz.homework.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.concurrency.PinnedThreadMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinnedThreadMonitorTest {
+
+    @Test
+    void monitor_ShouldRecordPinning_WhenVirtualThreadBlocksInSynchronized() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(5), registry);
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // the recording stream delivers events about once a second
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (registry.timer("task.virtual.pinned").count() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertTrue(registry.timer("task.virtual.pinned").count() > 0);
+        } finally {
+            monitor.stop();
+        }
+    }
+}
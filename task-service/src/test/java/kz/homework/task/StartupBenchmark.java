@@ -0,0 +1,187 @@
+package kz.homework.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the time from launching the JVM to the first successful {@code GET /api/v1/tasks/{id}}, for the plain fat jar
+ * and for the output of the {@code fast-startup} Maven profile. Runs in the {@code integration-test} phase of that
+ * profile, after the jar has been processed and the AppCDS archive recorded:
+ * <pre>
+ * ../mvnw verify -Pfast-startup -Dstartup.runs=5
+ * </pre>
+ * All launches share one H2 file seeded up front, so that the measured request finds its task and startup includes
+ * opening an existing database.
+ */
+@Slf4j
+@Tag("startup")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/aot/task-service-1.0-SNAPSHOT-exec.jar"));
+    private static final Path DIRECTORY = Path.of(System.getProperty("startup.directory", "target/aot/fast-startup"));
+    /**
+     * The same for every mode, so that only the way of launching differs between them.
+     */
+    private static final String PROFILES = "persistent,fast-startup";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private final Path dataDirectory = DIRECTORY.resolveSibling("startup-data");
+
+    /**
+     * Ways of launching the application, each one adds to the previous.
+     */
+    private enum Mode {
+        JAR, AOT, AOT_CDS
+    }
+
+    @Test
+    void firstRequest_ShouldBeFaster_WithAotAndClassDataSharing() throws Exception {
+        deleteDataDirectory();
+        int id = seed();
+
+        Map<Mode, long[]> times = new LinkedHashMap<>();
+        for (Mode mode : Mode.values()) {
+            long[] millis = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                millis[i] = timeToFirstRequest(mode, id);
+            }
+            Arrays.sort(millis);
+            times.put(mode, millis);
+        }
+        times.forEach((mode, millis) -> log.warn("{}: median {} ms, runs {}", mode, median(millis), Arrays.toString(millis)));
+
+        assertTrue(median(times.get(Mode.AOT_CDS)) < median(times.get(Mode.JAR)),
+                () -> "AOT with CDS is not faster than the plain jar: " + median(times.get(Mode.AOT_CDS))
+                        + " ms vs " + median(times.get(Mode.JAR)) + " ms");
+    }
+
+    /**
+     * Creates a task in the shared database and returns its id.
+     */
+    private int seed() throws Exception {
+        int port = freePort();
+        Process process = start(Mode.JAR, port);
+        try {
+            awaitStatus(port, "/actuator/health", 200, System.nanoTime());
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri(port, "/api/v1/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Startup\",\"description\":\"Read on every launch\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertTrue(response.statusCode() == 201, () -> "Seeding failed with " + response.statusCode());
+            Matcher matcher = ID.matcher(response.body());
+            assertTrue(matcher.find(), () -> "No id in " + response.body());
+            return Integer.parseInt(matcher.group(1));
+        } finally {
+            stop(process);
+        }
+    }
+
+    private long timeToFirstRequest(Mode mode, int id) throws Exception {
+        int port = freePort();
+        long start = System.nanoTime();
+        Process process = start(mode, port);
+        try {
+            awaitStatus(port, "/api/v1/tasks/" + id, 200, start);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private Process start(Mode mode, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode == Mode.AOT_CDS) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (mode != Mode.JAR) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(mode == Mode.JAR ? JAR.toAbsolutePath().toString() : JAR.getFileName().toString());
+        command.add("--server.port=" + port);
+        command.add("--task.data-dir=" + dataDirectory.toAbsolutePath());
+        command.add("--spring.profiles.active=" + PROFILES);
+        return new ProcessBuilder(command)
+                .directory(DIRECTORY.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(DIRECTORY.resolve("startup-" + mode.name().toLowerCase() + ".log").toFile())
+                .start();
+    }
+
+    private void awaitStatus(int port, String path, int status, long start) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(port, path)).GET().build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == status) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No " + status + " from " + path + " within " + TIMEOUT);
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private void deleteDataDirectory() throws IOException {
+        if (!Files.exists(dataDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
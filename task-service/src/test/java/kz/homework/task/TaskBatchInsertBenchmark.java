@@ -0,0 +1,73 @@
+package kz.homework.task;
+
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.repository.TaskRepository;
+import kz.homework.task.service.TaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares insert throughput of the single-create path with the batch-create path. Run with {@code -Pbenchmark},
+ * the row count is set with {@code -Dbenchmark.rows}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.kz.homework.task=WARN")
+class TaskBatchInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSingleAndBatchCreate() {
+        List<TaskRequest> taskRequests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            taskRequests.add(new TaskRequest("Task " + i, "Benchmark task " + i, Status.NEW));
+        }
+
+        long start = System.nanoTime();
+        for (TaskRequest taskRequest : taskRequests) {
+            taskService.createTask(taskRequest);
+        }
+        double singleRowsPerSecond = rowsPerSecond(start);
+        assertEquals(ROWS, taskRepository.count());
+
+        taskRepository.deleteAllInBatch();
+
+        start = System.nanoTime();
+        for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+            taskService.createTasks(taskRequests.subList(from, Math.min(from + BATCH_SIZE, ROWS)));
+        }
+        double batchRowsPerSecond = rowsPerSecond(start);
+        assertEquals(ROWS, taskRepository.count());
+
+        log.warn("Inserted {} rows: single create {} rows/s, batch create {} rows/s ({}x)", ROWS,
+                Math.round(singleRowsPerSecond), Math.round(batchRowsPerSecond),
+                String.format("%.1f", batchRowsPerSecond / singleRowsPerSecond));
+    }
+
+    private static double rowsPerSecond(long start) {
+        return ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,132 @@
+package kz.homework.task;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import kz.homework.task.config.CacheConfig;
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskPatchRequest;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.repository.TaskRepository;
+import kz.homework.task.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class TaskCacheTest {
+
+    @MockBean
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.TASKS_CACHE).clear();
+        Task task = new Task();
+        task.setId(1);
+        task.setTitle("Task Title");
+        task.setStatus(Status.NEW);
+        task.setCreatedAt(LocalDate.now());
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(task);
+    }
+
+    @Test
+    void getTaskResponseById_ShouldHitDatabaseOnce_WhenCalledRepeatedly() {
+        taskService.getTaskResponseById(1);
+        taskService.getTaskResponseById(1);
+
+        assertEquals("Task Title", taskService.getTaskResponseById(1).getTitle());
+        verify(taskRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void updateTask_ShouldInvalidateCachedTask() {
+        taskService.getTaskResponseById(1);
+        taskService.updateTask(1, new TaskRequest("Updated Title", null, Status.DONE), null);
+        taskService.getTaskResponseById(1);
+
+        // one lookup for each read plus the one inside updateTask
+        verify(taskRepository, times(3)).findById(1);
+    }
+
+    @Test
+    void cachingAdvice_ShouldWrapTransactionAdvice() {
+        List<Class<?>> advisors = Arrays.stream(((Advised) taskService).getAdvisors())
+                .<Class<?>>map(Advisor::getClass)
+                .toList();
+
+        assertTrue(advisors.indexOf(BeanFactoryCacheOperationSourceAdvisor.class)
+                < advisors.indexOf(BeanFactoryTransactionAttributeSourceAdvisor.class), advisors::toString);
+    }
+
+    @Test
+    void patchTask_ShouldEvictCachedTask_AfterCommit() {
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        when(taskRepository.patch(1, 0L, "Patched", null, null)).thenAnswer(invocation -> {
+            // a concurrent read that caches the old row while the patch commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    cache.put(1, new TaskResponse());
+                }
+            });
+            return 1;
+        });
+
+        taskService.patchTask(1, new TaskPatchRequest("Patched", null, null, 0L));
+
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void deleteTask_ShouldInvalidateCachedTask() {
+        taskService.getTaskResponseById(1);
+        taskService.deleteTask(1);
+        taskService.getTaskResponseById(1);
+
+        // one lookup for each read plus the one inside deleteTask
+        verify(taskRepository, times(3)).findById(1);
+    }
+
+    @Test
+    void taskPagesCache_ShouldBeBoundedByTasksInPages() {
+        CaffeineCache pages = (CaffeineCache) cacheManager.getCache(CacheConfig.TASK_PAGES_CACHE);
+        Policy.Eviction<Object, Object> eviction = pages.getNativeCache().policy().eviction().orElseThrow();
+
+        assertTrue(eviction.isWeighted());
+        assertEquals(20_000L, eviction.getMaximum());
+        assertEquals(10_000L, ((CaffeineCache) cacheManager.getCache(CacheConfig.TASKS_CACHE)).getNativeCache()
+                .policy().eviction().orElseThrow().getMaximum());
+    }
+}
@@ -0,0 +1,84 @@
+package kz.homework.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getAllTasks_ShouldRejectUnknownField_WhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/tasks/filter"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/tasks/filter").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/tasks/filter").param("fields", "unknown").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("unknown_field"));
+    }
+
+    @Test
+    void getAllTasks_ShouldRejectBadCursor_WhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/tasks/filter"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String dateless = new TaskCursor(TaskSort.CREATED_AT_DESC, null, 1).encode();
+
+        mockMvc.perform(get("/api/v1/tasks/filter").param("cursor", "not a cursor").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("bad_cursor"));
+        mockMvc.perform(get("/api/v1/tasks/filter").param("sort", "CREATED_AT_DESC").param("cursor", dateless)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("bad_cursor"));
+    }
+
+    @Test
+    void getTaskById_ShouldPrefixETagWithInstanceEpoch() throws Exception {
+        String body = objectMapper.writeValueAsString(new TaskRequest("Tagged", null, Status.NEW));
+        TaskResponse created = objectMapper.readValue(mockMvc.perform(post("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), TaskResponse.class);
+        String etag = mockMvc.perform(get("/api/v1/tasks/{id}", created.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // the bare version an instance with a fresh in-memory database would also hand out
+        assertNotEquals("\"" + created.getVersion() + "\"", etag);
+        mockMvc.perform(get("/api/v1/tasks/{id}", created.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/api/v1/tasks/{id}", created.getId()).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_MATCH, "\"" + created.getVersion() + "\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/tasks/{id}", created.getId()).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,185 @@
+package kz.homework.task;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.entity.Task;
+import kz.homework.task.exception.ApiError;
+import kz.homework.task.exception.ApiException;
+import kz.homework.task.ingest.GroupCommitProperties;
+import kz.homework.task.ingest.TaskCreateBatcher;
+import kz.homework.task.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskCreateBatcherTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GroupCommitProperties properties = new GroupCommitProperties();
+    private final AtomicInteger ids = new AtomicInteger();
+    private TaskCreateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(4);
+        properties.setMaxDelay(Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    void save_ShouldInsertConcurrentTasksInOneBatch() throws Exception {
+        when(taskRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+        start();
+
+        List<Task> saved = saveConcurrently("First", "Second", "Third", "Fourth");
+
+        verify(taskRepository, times(1)).saveAllAndFlush(anyList());
+        saved.forEach(task -> assertNotNull(task.getId()));
+        DistributionSummary batchSize = registry.get("task.group.commit.batch.size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(4.0, batchSize.totalAmount());
+    }
+
+    @Test
+    void save_ShouldSaveTasksOneByOne_WhenBatchFails() throws Exception {
+        properties.setMaxBatchSize(2);
+        when(taskRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("title too long"));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            if (task.getTitle().equals("Bad")) {
+                throw new DataIntegrityViolationException("title too long");
+            }
+            task.setId(ids.incrementAndGet());
+            return task;
+        });
+        start();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Task> good = callers.submit(() -> batcher.save(task("Good")));
+            Future<Task> bad = callers.submit(() -> batcher.save(task("Bad")));
+
+            assertNotNull(good.get().getId());
+            ExecutionException failure = assertThrows(ExecutionException.class, bad::get);
+            assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void save_ShouldReportUnknownOutcome_WhenCommitTakesLongerThanTimeout() throws Exception {
+        properties.setMaxDelay(Duration.ZERO);
+        properties.setTimeout(Duration.ofMillis(100));
+        CountDownLatch commit = new CountDownLatch(1);
+        when(taskRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            commit.await();
+            return invocation.getArgument(0);
+        });
+        start();
+
+        try {
+            ApiException failure = assertThrows(ApiException.class, () -> batcher.save(task("Slow")));
+            assertEquals(ApiError.CREATE_OUTCOME_UNKNOWN, failure.getApiError());
+        } finally {
+            commit.countDown();
+        }
+    }
+
+    @Test
+    void save_ShouldDropQueuedTask_WhenTimeoutPassesBeforeItIsTaken() throws Exception {
+        properties.setMaxBatchSize(1);
+        properties.setMaxDelay(Duration.ZERO);
+        properties.setTimeout(Duration.ofMillis(100));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        when(taskRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            commit.await();
+            return invocation.getArgument(0);
+        });
+        start();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            callers.submit(() -> batcher.save(task("Slow")));
+            writing.await();
+            try {
+                // the writer is busy with the first task, the second one is still queued when it times out
+                ApiException failure = assertThrows(ApiException.class, () -> batcher.save(task("Queued")));
+                assertEquals(ApiError.CREATE_TIMED_OUT, failure.getApiError());
+            } finally {
+                commit.countDown();
+            }
+        }
+        batcher.stop();
+        verify(taskRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void save_ShouldSaveDirectly_WhenStopped() throws Exception {
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        start();
+        batcher.stop();
+
+        batcher.save(task("Late"));
+
+        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    private void start() {
+        batcher = new TaskCreateBatcher(taskRepository, mock(PlatformTransactionManager.class), properties, registry);
+        batcher.start();
+    }
+
+    private List<Task> saveConcurrently(String... titles) throws Exception {
+        List<Task> saved = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Task>> futures = new ArrayList<>();
+            for (String title : titles) {
+                futures.add(callers.submit(() -> batcher.save(task(title))));
+            }
+            for (Future<Task> future : futures) {
+                saved.add(future.get());
+            }
+        }
+        return saved;
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+}
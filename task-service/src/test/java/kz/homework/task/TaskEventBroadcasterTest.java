@@ -0,0 +1,139 @@
+package kz.homework.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.homework.task.events.TaskEvent;
+import kz.homework.task.events.TaskEventBroadcaster;
+import kz.homework.task.events.TaskEventProperties;
+import kz.homework.task.model.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventBroadcasterTest {
+
+    private final TaskEventProperties properties = new TaskEventProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TaskEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    void subscribe_ShouldReplayMissedEventsOfStatus_WhenResumingWithLastEventId() throws InterruptedException {
+        broadcaster = new TaskEventBroadcaster(properties, registry);
+        RecordingEmitter live = new RecordingEmitter(null);
+        broadcaster.subscribe(null, null, live);
+
+        broadcaster.publish(TaskEvent.Type.CREATED, 1, null, Set.of(Status.NEW));
+        broadcaster.publish(TaskEvent.Type.CREATED, 2, null, Set.of(Status.DONE));
+        broadcaster.publish(TaskEvent.Type.DELETED, 3, null, Set.of(Status.NEW));
+        await(() -> live.events.size() == 3);
+        String firstId = live.events.getFirst().id();
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        broadcaster.subscribe(Status.NEW, firstId, resumed);
+        await(() -> resumed.events.size() == 1);
+        assertEquals("deleted", resumed.events.getFirst().name());
+        assertEquals(live.events.get(2).id(), resumed.events.getFirst().id());
+
+        RecordingEmitter restarted = new RecordingEmitter(null);
+        broadcaster.subscribe(null, "previous-instance-42", restarted);
+        await(() -> restarted.events.size() == 1);
+        assertEquals("reset", restarted.events.getFirst().name());
+        assertEquals(3, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void publish_ShouldNotWaitForSlowSubscriber_AndDisconnectItWhenBufferIsFull() throws InterruptedException {
+        properties.setSubscriberBuffer(2);
+        broadcaster = new TaskEventBroadcaster(properties, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        broadcaster.subscribe(null, null, slow);
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.publish(TaskEvent.Type.CREATED, i, null, Set.of(Status.NEW));
+        }
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos(), "publish waited for the subscriber");
+        assertEquals(1.0, registry.counter("task.events.disconnected").count());
+
+        release.countDown();
+        await(() -> slow.completed);
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(10.0, registry.counter("task.events.published").count());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private record Sent(String id, String name) {
+    }
+
+    /**
+     * Records the id and name of every sent event, optionally blocking each send until released.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Sent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String text = builder.build().stream()
+                    .filter(data -> data.getMediaType() == null || !data.getMediaType().equals(MediaType.APPLICATION_JSON))
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining());
+            String id = null;
+            String name = null;
+            for (String line : text.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            if (name != null) {
+                events.add(new Sent(id, name));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package kz.homework.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the running application over HTTP with a mix of create, filter, get, update and delete calls and compares
+ * errors and latency percentiles per endpoint with a stored baseline. Run with {@code -Pload}.
+ * <p>
+ * Requests arrive on an open model: start times follow a Poisson process at {@code load.rate} requests per second
+ * regardless of how fast the service answers, and latency is measured from the scheduled start, so a stalled service
+ * shows up in the percentiles instead of silently lowering the offered load. The request count is therefore set by the
+ * rate, not by the service, and is not compared. A percentile is only compared once both runs have enough requests to
+ * resolve it, e.g. 1000 for p999, which the default rate and duration do not reach.
+ * <p>
+ * Settings are system properties: {@code load.seed} tasks created up front, {@code load.rate}, {@code load.duration}
+ * in seconds, {@code load.threshold} as the allowed relative regression, and {@code load.updateBaseline=true} to write
+ * the results as the new baseline. The baseline is specific to the machine it was recorded on. {@code load.url} points
+ * the load at an already running server instead of the embedded one, e.g. the task-reactive module.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.kz.homework.task=WARN")
+class TaskLoadTest {
+
+    private static final int SEED = Integer.getInteger("load.seed", 10_000);
+    private static final int RATE = Integer.getInteger("load.rate", 50);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("load.threshold", "0.5"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("load.updateBaseline");
+    private static final String URL = System.getProperty("load.url");
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline", "src/test/resources/load-baseline.json"));
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int WARM_UP_SECONDS = 5;
+    private static final List<Map.Entry<String, Double>> PERCENTILES = List.of(Map.entry("p50", 0.5), Map.entry("p99", 0.99), Map.entry("p999", 0.999));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<Integer> seededIds = new ArrayList<>(SEED);
+    private final ConcurrentLinkedDeque<Integer> createdIds = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Share of each endpoint in the generated traffic.
+     */
+    private enum Endpoint {
+        CREATE(20), FILTER(30), GET(30), UPDATE(15), DELETE(5);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Endpoint pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return GET;
+        }
+    }
+
+    @Test
+    void mixedWorkload_ShouldNotRegressAgainstBaseline() throws Exception {
+        seed();
+        run(WARM_UP_SECONDS, null);
+
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder());
+        }
+        run(DURATION_SECONDS, recorders);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint.name(), recorder.result()));
+        results.forEach((endpoint, result) -> log.warn("{}: {}", endpoint, result));
+
+        if (UPDATE_BASELINE || !Files.exists(BASELINE)) {
+            Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+            objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(BASELINE.toFile(), results);
+            log.warn("Baseline written to {}", BASELINE.toAbsolutePath());
+            return;
+        }
+        List<String> regressions = compare(results, objectMapper.readTree(BASELINE.toFile()));
+        assertTrue(regressions.isEmpty(), () -> "Regressions against " + BASELINE + ":" + System.lineSeparator()
+                + String.join(System.lineSeparator(), regressions));
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < SEED; i += SEED_BATCH_SIZE) {
+            batch.setLength(0);
+            batch.append('[');
+            for (int j = i; j < Math.min(i + SEED_BATCH_SIZE, SEED); j++) {
+                batch.append(j == i ? "" : ",")
+                        .append("{\"title\":\"Task ").append(j)
+                        .append("\",\"description\":\"Seeded task ").append(j)
+                        .append("\",\"status\":\"").append(j % 3 == 0 ? "NEW" : j % 3 == 1 ? "IN_PROGRESS" : "DONE").append("\"}");
+            }
+            HttpResponse<String> response = httpClient.send(json("/api/v1/tasks/batch").POST(body(batch.append(']').toString())).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(response.statusCode() == 201, () -> "Seeding failed with " + response.statusCode());
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                seededIds.add(result.get("task").get("id").asInt());
+            }
+        }
+    }
+
+    /**
+     * Generates load for the given time, {@code recorders} is {@code null} for the warm-up.
+     */
+    private void run(int seconds, Map<Endpoint, Recorder> recorders) throws InterruptedException {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) RATE;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long scheduled = start;
+            while (true) {
+                scheduled += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+                if (scheduled >= end) {
+                    break;
+                }
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                long intendedStart = scheduled;
+                Endpoint endpoint = Endpoint.pick();
+                executor.submit(() -> {
+                    Boolean ok = call(endpoint);
+                    if (recorders != null && ok != null) {
+                        recorders.get(endpoint).record(System.nanoTime() - intendedStart, ok);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * @return whether the call succeeded, {@code null} when there was nothing to call it on
+     */
+    private Boolean call(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // seeded tasks are never deleted, so get and update always find their target
+        int seededId = seededIds.get(random.nextInt(seededIds.size()));
+        try {
+            return switch (endpoint) {
+                case CREATE -> {
+                    HttpResponse<String> response = httpClient.send(json("/api/v1/tasks")
+                            .POST(body("{\"title\":\"Load task\",\"description\":\"Created under load\"}")).build(), HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 201) {
+                        createdIds.add(objectMapper.readTree(response.body()).get("id").asInt());
+                    }
+                    yield response.statusCode() == 201;
+                }
+                case FILTER -> send(json("/api/v1/tasks/filter?status=" + (random.nextBoolean() ? "NEW" : "DONE") + "&limit=50").GET()) == 200;
+                case GET -> send(json("/api/v1/tasks/" + seededId).GET()) == 200;
+                case UPDATE -> send(json("/api/v1/tasks/" + seededId)
+                        .PUT(body("{\"title\":\"Updated task\",\"description\":\"Updated under load\",\"status\":\"IN_PROGRESS\"}"))) == 200;
+                case DELETE -> {
+                    Integer id = createdIds.poll();
+                    // no created task is left to delete, skipped rather than counted as a fast success
+                    yield id == null ? null : send(json("/api/v1/tasks/" + id).DELETE()) == 200;
+                }
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return HttpRequest.newBuilder(URI.create((URL == null ? "http://localhost:" + port : URL) + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    private List<String> compare(Map<String, Result> results, JsonNode baseline) {
+        List<String> regressions = new ArrayList<>();
+        results.forEach((endpoint, result) -> {
+            if (result.errors() > 0) {
+                regressions.add("%s failed %d requests".formatted(endpoint, result.errors()));
+            }
+            JsonNode expected = baseline.get(endpoint);
+            if (expected == null) {
+                return;
+            }
+            JsonNode actual = objectMapper.valueToTree(result);
+            long samples = Math.min(result.requests(), expected.get("requests").asLong());
+            for (Map.Entry<String, Double> entry : PERCENTILES) {
+                String percentile = entry.getKey();
+                // with fewer requests than that the percentile is just the slowest request, i.e. noise
+                if (samples < Math.round(1 / (1 - entry.getValue()))) {
+                    log.warn("{} {} not compared, only {} requests", endpoint, percentile, samples);
+                    continue;
+                }
+                if (actual.get(percentile).asDouble() > expected.get(percentile).asDouble() * (1 + THRESHOLD)) {
+                    regressions.add("%s %s %.2f ms, baseline %.2f ms".formatted(endpoint, percentile, actual.get(percentile).asDouble(), expected.get(percentile).asDouble()));
+                }
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * Latencies in milliseconds.
+     */
+    record Result(long requests, long errors, double p50, double p99, double p999) {
+    }
+
+    private static final class Recorder {
+
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        synchronized void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized Result result() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(count, errors.get(), percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package kz.homework.task;
+
+import kz.homework.task.cache.TaskQueryCache;
+import kz.homework.task.cache.TaskQueryCacheProperties;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskQueryCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final TaskQueryCache taskQueryCache = new TaskQueryCache(new ConcurrentMapCacheManager(), new TaskQueryCacheProperties());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<TaskPage<TaskResponse>> loader = () -> {
+        loads.incrementAndGet();
+        return new TaskPage<>(List.of(), null);
+    };
+
+    @Test
+    void get_ShouldReturnCachedPage_WhenNothingChanged() {
+        TaskPage<TaskResponse> first = taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        TaskPage<TaskResponse> second = taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldReloadAffectedFilters() {
+        taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, null, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(null, null, TaskSort.ID_ASC, null, 50, null, loader);
+
+        taskQueryCache.invalidate(Status.NEW, TODAY);
+
+        taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, null, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(null, null, TaskSort.ID_ASC, null, 50, null, loader);
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldKeepUnaffectedFiltersWarm() {
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, TODAY.minusDays(1), TaskSort.ID_ASC, null, 50, null, loader);
+
+        taskQueryCache.invalidate(Status.NEW, TODAY);
+
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, TODAY.minusDays(1), TaskSort.ID_ASC, null, 50, null, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldReloadAllDates_WhenCreatedAtIsNull() {
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.DONE, TODAY.minusDays(1), TaskSort.ID_ASC, null, 50, null, loader);
+
+        taskQueryCache.invalidate(Status.DONE, null);
+
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.DONE, TODAY.minusDays(1), TaskSort.ID_ASC, null, 50, null, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldKeepOtherStatusesWarm_WhenCreatedAtIsNull() {
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(null, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+
+        taskQueryCache.invalidate(Status.DONE, null);
+
+        taskQueryCache.get(Status.DONE, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(Status.NEW, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        taskQueryCache.get(null, TODAY, TaskSort.ID_ASC, null, 50, null, loader);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotTrackVersions_WhenOnlyReading() {
+        for (int day = 0; day < 100; day++) {
+            taskQueryCache.get(Status.NEW, TODAY.minusDays(day), TaskSort.ID_ASC, null, 50, null, loader);
+            taskQueryCache.tag(null, TODAY.minusDays(day));
+        }
+
+        assertEquals(0, taskQueryCache.getVersionCount());
+    }
+
+    @Test
+    void tag_ShouldChange_WhenMatchingTaskIsWritten() {
+        String before = taskQueryCache.tag(Status.NEW, null);
+
+        taskQueryCache.invalidate(Status.DONE, TODAY);
+        assertEquals(before, taskQueryCache.tag(Status.NEW, null));
+
+        taskQueryCache.invalidate(null, TODAY);
+        assertNotEquals(before, taskQueryCache.tag(Status.NEW, null));
+    }
+
+    @Test
+    void tag_ShouldNeverRepeat_WhenVersionsAreDropped() throws InterruptedException {
+        TaskQueryCacheProperties properties = new TaskQueryCacheProperties();
+        properties.setVersionTtl(Duration.ofNanos(1));
+        TaskQueryCache shortLived = new TaskQueryCache(new ConcurrentMapCacheManager(), properties);
+        Set<String> issued = new HashSet<>();
+        issued.add(shortLived.tag(Status.NEW, TODAY));
+
+        for (int write = 0; write < 5; write++) {
+            shortLived.invalidate(Status.NEW, TODAY);
+            Thread.sleep(1);
+            // a write elsewhere sweeps the idle version of the first filter
+            shortLived.invalidate(Status.DONE, TODAY.minusDays(1));
+
+            // only the four filters of the last write are left
+            assertEquals(4, shortLived.getVersionCount());
+            assertTrue(issued.add(shortLived.tag(Status.NEW, TODAY)));
+        }
+    }
+}
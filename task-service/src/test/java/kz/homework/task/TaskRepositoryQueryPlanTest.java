@@ -0,0 +1,164 @@
+package kz.homework.task;
+
+import jakarta.persistence.EntityManager;
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskSort;
+import kz.homework.task.repository.TaskRepository;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static kz.homework.task.repository.TaskSpecifications.after;
+import static kz.homework.task.repository.TaskSpecifications.createdAt;
+import static kz.homework.task.repository.TaskSpecifications.hasStatus;
+import static kz.homework.task.repository.TaskSpecifications.orderBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL that Hibernate generates for every filter query and fails when H2 falls back to a
+ * table scan, so that a changed query or a dropped index is caught before it reaches production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=kz.homework.task.TaskRepositoryQueryPlanTest$SqlRecorder")
+class TaskRepositoryQueryPlanTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void seed() {
+        entityManager.createNativeQuery("""
+                        insert into tasks(id, title, status, created_at, version)
+                        select x, 'Task ' || x,
+                               case mod(x, 3) when 0 then 'NEW' when 1 then 'IN_PROGRESS' else 'DONE' end,
+                               dateadd('DAY', -mod(x, 30), current_date), 0
+                        from system_range(1, 3000)""")
+                .executeUpdate();
+    }
+
+    @Test
+    void findBy_ShouldUseIndex_WhenFilteringByStatus() {
+        assertUsesIndex(() -> find(hasStatus(Status.NEW), TaskSort.ID_ASC));
+    }
+
+    @Test
+    void findBy_ShouldUseIndex_WhenFilteringByCreatedAt() {
+        assertUsesIndex(() -> find(createdAt(TODAY), TaskSort.ID_ASC));
+    }
+
+    @Test
+    void findBy_ShouldUseIndex_WhenFilteringByStatusAndCreatedAt() {
+        assertUsesIndex(() -> find(hasStatus(Status.NEW).and(createdAt(TODAY)), TaskSort.ID_ASC));
+    }
+
+    @Test
+    void findBy_ShouldUseIndex_WhenFilteringByStatusAfterCursor() {
+        TaskCursor cursor = new TaskCursor(TaskSort.CREATED_AT_DESC, TODAY, 100);
+        assertUsesIndex(() -> find(hasStatus(Status.NEW).and(after(cursor)), TaskSort.CREATED_AT_DESC));
+    }
+
+    @Test
+    void findBy_ShouldUseIndex_WhenFilteringByCreatedAtAfterCursor() {
+        TaskCursor cursor = new TaskCursor(TaskSort.ID_ASC, TODAY, 100);
+        assertUsesIndex(() -> find(createdAt(TODAY).and(after(cursor)), TaskSort.ID_ASC));
+    }
+
+    @Test
+    void stream_ShouldUseIndex_WhenFilteringByStatus() {
+        assertUsesIndex(() -> consume(taskRepository.streamByStatusOrderByIdAsc(Status.NEW)));
+    }
+
+    @Test
+    void stream_ShouldUseIndex_WhenFilteringByCreatedAt() {
+        assertUsesIndex(() -> consume(taskRepository.streamByCreatedAtOrderByIdAsc(TODAY)));
+    }
+
+    @Test
+    void stream_ShouldUseIndex_WhenFilteringByStatusAndCreatedAt() {
+        assertUsesIndex(() -> consume(taskRepository.streamByStatusAndCreatedAtOrderByIdAsc(Status.NEW, TODAY)));
+    }
+
+    @Test
+    void updateStatus_ShouldUseIndex() {
+        assertUsesIndex(() -> taskRepository.updateStatus(Status.IN_PROGRESS, Status.DONE));
+    }
+
+    @Test
+    void updateStatusByCreatedAt_ShouldUseIndex() {
+        assertUsesIndex(() -> taskRepository.updateStatusByCreatedAt(Status.IN_PROGRESS, TODAY, Status.DONE));
+    }
+
+    @Test
+    void findIdsByStatus_ShouldUseIndex() {
+        assertUsesIndex(() -> taskRepository.findIdsByStatus(Status.DONE));
+    }
+
+    @Test
+    void deleteAllByStatus_ShouldUseIndex() {
+        assertUsesIndex(() -> taskRepository.deleteAllByStatus(Status.DONE));
+    }
+
+    private void find(Specification<Task> specification, TaskSort sort) {
+        taskRepository.findBy(specification, query -> query.sortBy(orderBy(sort)).limit(51).all());
+    }
+
+    private static void consume(Stream<Task> tasks) {
+        try (tasks) {
+            tasks.findFirst();
+        }
+    }
+
+    private void assertUsesIndex(Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        String sql = SqlRecorder.STATEMENTS.getLast();
+        String plan = explain(sql);
+        assertFalse(plan.contains(".tableScan"), () -> "Table scan for: " + sql + System.lineSeparator() + plan);
+        assertTrue(plan.contains("/* PUBLIC.IDX_TASKS_"), () -> "No index used for: " + sql + System.lineSeparator() + plan);
+    }
+
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // H2 plans with unbound parameters, the values do not affect the index choice
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package kz.homework.task;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.homework.task.entity.Task;
+import kz.homework.task.model.Status;
+import kz.homework.task.repository.TaskRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void patch_ShouldUpdateInOneStatement_WhenVersionMatches() {
+        Task saved = save("Task 1", Status.NEW);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(1, taskRepository.patch(saved.getId(), saved.getVersion(), null, null, Status.DONE));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Task task = taskRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(Status.DONE, task.getStatus());
+        assertEquals("Task 1", task.getTitle());
+        assertEquals(saved.getVersion() + 1, task.getVersion());
+    }
+
+    @Test
+    void patch_ShouldNotUpdate_WhenVersionIsStale() {
+        Task saved = save("Task 1", Status.NEW);
+        taskRepository.patch(saved.getId(), saved.getVersion(), "First", null, null);
+
+        assertEquals(0, taskRepository.patch(saved.getId(), saved.getVersion(), "Second", null, null));
+        assertEquals("First", taskRepository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    private Task save(String title, Status status) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        return taskRepository.saveAndFlush(task);
+    }
+}
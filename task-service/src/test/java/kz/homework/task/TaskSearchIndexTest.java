@@ -0,0 +1,68 @@
+package kz.homework.task;
+
+import kz.homework.task.search.SearchHit;
+import kz.homework.task.search.TaskSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+
+    @Test
+    void search_ShouldRankTitleMatchesAndMoreMatchedTermsFirst() {
+        index.put(1, "Weekly report", "Send it to the team");
+        index.put(2, "Groceries", "Milk, bread and the weekly REPORT printout");
+        index.put(3, "Weekly sync", "Agenda");
+        index.put(4, "Unrelated", "Nothing here");
+
+        assertEquals(List.of(1, 2, 3), ids(index.search("weekly report", null, 10)));
+        assertEquals(List.of(2), ids(index.search("milk", null, 10)));
+        assertEquals(List.of(), ids(index.search("missing", null, 10)));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousText_AndRemoveShouldDropTask() {
+        index.put(1, "Draft", "old words");
+        index.put(1, "Final", "new words");
+
+        assertEquals(List.of(), ids(index.search("draft old", null, 10)));
+        assertEquals(List.of(1), ids(index.search("final", null, 10)));
+        assertEquals(3, index.termCount());
+
+        index.remove(1);
+
+        assertEquals(0, index.documentCount());
+        assertEquals(0, index.termCount());
+        assertEquals(0, index.postingCount());
+    }
+
+    @Test
+    void search_ShouldPageThroughAllHitsWithCursor() {
+        for (int id = 1; id <= 25; id++) {
+            index.put(id, "Task " + id, id % 2 == 0 ? "task with more task text" : null);
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        SearchHit after = null;
+        List<SearchHit> page;
+        do {
+            page = index.search("task", after, 10);
+            page.forEach(hit -> seen.add(hit.id()));
+            after = page.isEmpty() ? null : SearchHit.decode(page.getLast().encode());
+        } while (page.size() == 10);
+
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().distinct().count());
+        assertTrue(seen.indexOf(2) < seen.indexOf(1), "tasks mentioning the term more often rank first");
+    }
+
+    private static List<Integer> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
@@ -1,29 +1,60 @@
 package kz.homework.task;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import kz.homework.task.cache.TaskQueryCache;
+import kz.homework.task.cache.TaskQueryCacheProperties;
 import kz.homework.task.entity.Task;
+import kz.homework.task.events.TaskEventBroadcaster;
+import kz.homework.task.ingest.TaskCreateBatcher;
 import kz.homework.task.exception.ApiError;
 import kz.homework.task.exception.ApiException;
 import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskBatchResult;
+import kz.homework.task.model.TaskCursor;
+import kz.homework.task.model.TaskField;
+import kz.homework.task.model.TaskPage;
+import kz.homework.task.model.TaskPatchRequest;
 import kz.homework.task.model.TaskRequest;
 import kz.homework.task.model.TaskResponse;
+import kz.homework.task.model.TaskSort;
 import kz.homework.task.repository.TaskRepository;
+import kz.homework.task.search.SearchHit;
+import kz.homework.task.search.TaskSearchIndexer;
 import kz.homework.task.service.impl.TaskServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +63,24 @@ class TaskServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private TaskQueryCache taskQueryCache = new TaskQueryCache(new NoOpCacheManager(), new TaskQueryCacheProperties());
+
+    @Mock
+    private TaskSearchIndexer taskSearchIndexer;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Mock
+    private TaskCreateBatcher taskCreateBatcher;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -59,6 +108,30 @@ class TaskServiceImplTest {
         verify(taskRepository, times(1)).save(any(Task.class));
     }
 
+    @Test
+    void createTasks_ShouldSaveValidTasksAndRejectInvalidOnes() {
+        TaskRequest valid = new TaskRequest("Test Title", "Test Description", Status.NEW);
+        TaskRequest invalid = new TaskRequest("", "Test Description", Status.NEW);
+        Task task = new Task();
+        task.setId(1);
+        task.setTitle("Test Title");
+        task.setDescription("Test Description");
+        task.setStatus(Status.NEW);
+        task.setCreatedAt(LocalDate.now());
+
+        when(taskRepository.saveAllAndFlush(anyList())).thenReturn(List.of(task));
+
+        List<TaskBatchResult> results = taskService.createTasks(List.of(invalid, valid));
+
+        assertEquals(2, results.size());
+        assertEquals(400, results.get(0).getStatus());
+        assertNull(results.get(0).getTask());
+        assertNotNull(results.get(0).getError().getData().get("title"));
+        assertEquals(201, results.get(1).getStatus());
+        assertEquals(1, results.get(1).getTask().getId());
+        verify(taskRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
     @Test
     void getTasks_ShouldReturnAllTasks_WhenStatusAndCreatedAtAreNull() {
         Task task = new Task();
@@ -66,13 +139,14 @@ class TaskServiceImplTest {
         task.setTitle("Test Task");
         task.setDescription("Task Description");
 
-        when(taskRepository.findAll()).thenReturn(List.of(task));
+        when(taskRepository.findBy(anySpecification(), anyQuery())).thenReturn(List.of(task));
 
-        List<TaskResponse> responses = taskService.getTasks(null, null);
+        TaskPage<TaskResponse> page = taskService.getTasks(null, null, TaskSort.ID_ASC, null, 10);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        verify(taskRepository, times(1)).findAll();
+        assertNotNull(page.getItems());
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+        verify(taskRepository, times(1)).findBy(anySpecification(), anyQuery());
     }
 
     @Test
@@ -83,13 +157,13 @@ class TaskServiceImplTest {
         task.setStatus(Status.NEW);
         task.setDescription("Testing Task Description");
 
-        when(taskRepository.findByStatus(any(Status.class))).thenReturn(List.of(task));
+        when(taskRepository.findBy(anySpecification(), anyQuery())).thenReturn(List.of(task));
 
-        List<TaskResponse> responses = taskService.getTasks(Status.NEW, null);
+        TaskPage<TaskResponse> page = taskService.getTasks(Status.NEW, null, TaskSort.ID_ASC, null, 10);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        verify(taskRepository, times(1)).findByStatus(any(Status.class));
+        assertNotNull(page.getItems());
+        assertEquals(1, page.getItems().size());
+        verify(taskRepository, times(1)).findBy(anySpecification(), anyQuery());
     }
 
     @Test
@@ -100,19 +174,18 @@ class TaskServiceImplTest {
         task.setStatus(Status.NEW);
         task.setDescription("Testing Task Description");
 
-        when(taskRepository.findByCreatedAt(any(LocalDate.class))).thenReturn(List.of(task));
+        when(taskRepository.findBy(anySpecification(), anyQuery())).thenReturn(List.of(task));
 
-        List<TaskResponse> responses = taskService.getTasks(null, LocalDate.now());
+        TaskPage<TaskResponse> page = taskService.getTasks(null, LocalDate.now(), TaskSort.CREATED_AT_DESC, null, 10);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        verify(taskRepository, times(1)).findByCreatedAt(any(LocalDate.class));
+        assertNotNull(page.getItems());
+        assertEquals(1, page.getItems().size());
+        verify(taskRepository, times(1)).findBy(anySpecification(), anyQuery());
     }
 
     @Test
     void getTasks_ShouldReturnTasksFilteredByStatusAndCreatedAt() {
         Status status = Status.NEW;
-        LocalDate createdAt = LocalDate.now();
         Task task = new Task();
         task.setId(1);
         task.setTitle("Test Task");
@@ -120,13 +193,97 @@ class TaskServiceImplTest {
         task.setStatus(status);
         task.setCreatedAt(LocalDate.now());
 
-        when(taskRepository.findByStatusAndCreatedAt(status, createdAt)).thenReturn(List.of(task));
+        when(taskRepository.findBy(anySpecification(), anyQuery())).thenReturn(List.of(task));
+
+        TaskPage<TaskResponse> page = taskService.getTasks(status, LocalDate.now(), TaskSort.ID_ASC, null, 10);
+
+        assertNotNull(page.getItems());
+        assertEquals(1, page.getItems().size());
+        verify(taskRepository, times(1)).findBy(anySpecification(), anyQuery());
+    }
+
+    @Test
+    void getTasks_ShouldReturnNextCursor_WhenMoreTasksThanLimit() {
+        Task first = new Task();
+        first.setId(1);
+        first.setCreatedAt(LocalDate.now());
+        Task second = new Task();
+        second.setId(2);
+        second.setCreatedAt(LocalDate.now());
+
+        when(taskRepository.findBy(anySpecification(), anyQuery())).thenReturn(List.of(first, second));
+
+        TaskPage<TaskResponse> page = taskService.getTasks(null, null, TaskSort.CREATED_AT_ASC, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNext());
+        TaskCursor cursor = TaskCursor.decode(page.getNext(), TaskSort.CREATED_AT_ASC);
+        assertEquals(1, cursor.id());
+        assertEquals(LocalDate.now(), cursor.createdAt());
+    }
 
-        List<TaskResponse> responses = taskService.getTasks(status, LocalDate.now());
+    @Test
+    void decodeCursor_ShouldThrowException_WhenCursorDoesNotMatchSort() {
+        String cursor = new TaskCursor(TaskSort.ID_ASC, LocalDate.now(), 1).encode();
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> TaskCursor.decode(cursor, TaskSort.ID_DESC));
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        verify(taskRepository, times(1)).findByStatusAndCreatedAt(status, createdAt);
+        assertEquals(ApiError.BAD_CURSOR, exception.getApiError());
+    }
+
+    @Test
+    void decodeCursor_ShouldThrowException_WhenCreatedAtCursorHasNoDate() {
+        String cursor = new TaskCursor(TaskSort.CREATED_AT_DESC, null, 1).encode();
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> TaskCursor.decode(cursor, TaskSort.CREATED_AT_DESC));
+
+        assertEquals(ApiError.BAD_CURSOR, exception.getApiError());
+    }
+
+    @Test
+    void getTaskFields_ShouldReturnOnlyRequestedFields_AndNextCursor() {
+        Map<String, Object> first = new LinkedHashMap<>(Map.of("id", 1, "title", "First"));
+        Map<String, Object> second = new LinkedHashMap<>(Map.of("id", 2, "title", "Second"));
+
+        when(taskRepository.findFields(anySpecification(), any(Sort.class), eq(2), eq(EnumSet.of(TaskField.ID, TaskField.TITLE))))
+                .thenReturn(List.of(first, second));
+
+        TaskPage<Map<String, Object>> page = taskService.getTaskFields(null, null, TaskSort.ID_ASC, null, 1, EnumSet.of(TaskField.TITLE));
+
+        assertEquals(List.of(Map.of("title", "First")), page.getItems());
+        assertEquals(1, TaskCursor.decode(page.getNext(), TaskSort.ID_ASC).id());
+    }
+
+    @Test
+    void getTaskFieldsById_ShouldThrowException_WhenTaskDoesNotExist() {
+        when(taskRepository.findFields(anySpecification(), any(Sort.class), eq(1), eq(EnumSet.of(TaskField.TITLE))))
+                .thenReturn(List.of());
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> taskService.getTaskFieldsById(1, EnumSet.of(TaskField.TITLE)));
+
+        assertEquals(ApiError.RESOURCE_NOT_FOUND, exception.getApiError());
+    }
+
+    @Test
+    void exportTasks_ShouldStreamTasksToConsumer() {
+        Task first = new Task();
+        first.setId(1);
+        first.setStatus(Status.DONE);
+        Task second = new Task();
+        second.setId(2);
+        second.setStatus(Status.DONE);
+
+        when(taskRepository.streamByStatusOrderByIdAsc(Status.DONE)).thenReturn(Stream.of(first, second));
+
+        List<TaskResponse> exported = new ArrayList<>();
+        taskService.exportTasks(Status.DONE, null, exported::add);
+
+        assertEquals(2, exported.size());
+        assertEquals(2, exported.get(1).getId());
+        verify(taskRepository, times(1)).streamByStatusOrderByIdAsc(Status.DONE);
     }
 
     @Test
@@ -166,32 +323,174 @@ class TaskServiceImplTest {
         task.setStatus(Status.NEW);
 
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(task);
 
-        TaskResponse response = taskService.updateTask(1, taskRequest);
+        TaskResponse response = taskService.updateTask(1, taskRequest, null);
 
         assertNotNull(response);
         assertEquals("Updated Title", response.getTitle());
         verify(taskRepository, times(1)).findById(1);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, times(1)).saveAndFlush(any(Task.class));
+        verify(taskQueryCache, times(1)).invalidate(Status.NEW, null);
+        verify(taskQueryCache, times(1)).invalidate(Status.IN_PROGRESS, null);
     }
 
     @Test
-    void deleteTask_ShouldDeleteTask_WhenTaskExists() {
+    void updateTask_ShouldThrowException_WhenVersionDoesNotMatch() {
+        Task task = new Task();
+        task.setId(1);
+        task.setStatus(Status.NEW);
+        task.setVersion(2L);
+
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> taskService.updateTask(1, new TaskRequest("Updated Title", null, Status.DONE), 1L));
+
+        assertEquals(ApiError.PRECONDITION_FAILED, exception.getApiError());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    void patchTask_ShouldUpdateOnlyGivenFields_WhenVersionMatches() {
+        Task task = new Task();
+        task.setId(1);
+        task.setTitle("Patched Title");
+        task.setStatus(Status.NEW);
+        task.setVersion(3L);
+
+        when(taskRepository.patch(1, 2L, "Patched Title", null, null)).thenReturn(1);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+
+        TaskResponse response = taskService.patchTask(1, new TaskPatchRequest("Patched Title", null, null, 2L));
+
+        assertEquals("Patched Title", response.getTitle());
+        assertEquals(3L, response.getVersion());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskQueryCache, times(1)).invalidate(Status.NEW, null);
+    }
+
+    @Test
+    void patchTask_ShouldInvalidateEveryStatus_WhenStatusChanges() {
+        Task task = new Task();
+        task.setId(1);
+        task.setStatus(Status.DONE);
+        task.setVersion(1L);
+
+        when(taskRepository.patch(1, 0L, null, null, Status.DONE)).thenReturn(1);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+
+        taskService.patchTask(1, new TaskPatchRequest(null, null, Status.DONE, 0L));
+
+        verify(taskQueryCache, times(1)).invalidate(null, null);
+    }
+
+    @Test
+    void patchTask_ShouldThrowVersionConflict_WhenVersionIsStale() {
+        when(taskRepository.patch(1, 0L, "Patched Title", null, null)).thenReturn(0);
         when(taskRepository.existsById(1)).thenReturn(true);
 
+        ApiException exception = assertThrows(ApiException.class,
+                () -> taskService.patchTask(1, new TaskPatchRequest("Patched Title", null, null, 0L)));
+
+        assertEquals(ApiError.VERSION_CONFLICT, exception.getApiError());
+        verify(taskRepository, never()).findById(1);
+    }
+
+    @Test
+    void patchTask_ShouldThrowException_WhenTaskDoesNotExist() {
+        when(taskRepository.patch(1, 0L, "Patched Title", null, null)).thenReturn(0);
+        when(taskRepository.existsById(1)).thenReturn(false);
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> taskService.patchTask(1, new TaskPatchRequest("Patched Title", null, null, 0L)));
+
+        assertEquals(ApiError.RESOURCE_NOT_FOUND, exception.getApiError());
+    }
+
+    @Test
+    void deleteTask_ShouldDeleteTask_WhenTaskExists() {
+        Task task = new Task();
+        task.setId(1);
+        task.setStatus(Status.NEW);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+
         taskService.deleteTask(1);
 
-        verify(taskRepository, times(1)).deleteById(1);
+        verify(taskRepository, times(1)).delete(task);
+        verify(taskQueryCache, times(1)).invalidate(Status.NEW, null);
     }
 
     @Test
     void deleteTask_ShouldThrowException_WhenTaskDoesNotExist() {
-        when(taskRepository.existsById(1)).thenReturn(false);
+        when(taskRepository.findById(1)).thenReturn(Optional.empty());
 
         ApiException exception = assertThrows(ApiException.class, () -> taskService.deleteTask(1));
 
         assertEquals(ApiError.RESOURCE_NOT_FOUND, exception.getApiError());
-        verify(taskRepository, times(1)).existsById(1);
+        verify(taskRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void updateStatuses_ShouldRunSingleUpdate_WhenCreatedAtIsSet() {
+        LocalDate createdAt = LocalDate.now();
+        when(taskRepository.updateStatusByCreatedAt(Status.IN_PROGRESS, createdAt, Status.DONE)).thenReturn(3);
+
+        int updated = taskService.updateStatuses(Status.IN_PROGRESS, createdAt, Status.DONE);
+
+        assertEquals(3, updated);
+        verify(taskRepository, times(1)).updateStatusByCreatedAt(Status.IN_PROGRESS, createdAt, Status.DONE);
+    }
+
+    @Test
+    void updateStatuses_ShouldNotTouchRepository_WhenStatusesAreEqual() {
+        int updated = taskService.updateStatuses(Status.DONE, null, Status.DONE);
+
+        assertEquals(0, updated);
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void deleteTasks_ShouldRunSingleDelete() {
+        when(taskRepository.findIdsByStatus(Status.DONE)).thenReturn(List.of(1, 2, 3));
+        when(taskRepository.deleteAllByStatus(Status.DONE)).thenReturn(3);
+
+        int deleted = taskService.deleteTasks(Status.DONE);
+
+        assertEquals(3, deleted);
+        verify(taskRepository, times(1)).deleteAllByStatus(Status.DONE);
+        verify(taskSearchIndexer).removeMissing(List.of(1, 2, 3));
+    }
+
+    @Test
+    void searchTasks_ShouldKeepRankOrder_AndSkipTasksDeletedSinceIndexing() {
+        when(taskSearchIndexer.search("report", null, 3)).thenReturn(List.of(
+                new SearchHit(7, 2.5), new SearchHit(3, 1.5), new SearchHit(9, 0.5)));
+        Task first = new Task();
+        first.setId(7);
+        Task second = new Task();
+        second.setId(3);
+        when(taskRepository.findAllById(List.of(7, 3))).thenReturn(List.of(second, first));
+
+        TaskPage<TaskResponse> page = taskService.searchTasks("report", null, 2);
+
+        assertEquals(List.of(7, 3), page.getItems().stream().map(TaskResponse::getId).toList());
+        assertEquals(new SearchHit(3, 1.5), SearchHit.decode(page.getNext()));
+
+        when(taskSearchIndexer.search("report", new SearchHit(3, 1.5), 3)).thenReturn(List.of(new SearchHit(9, 0.5)));
+        when(taskRepository.findAllById(List.of(9))).thenReturn(List.of());
+
+        TaskPage<TaskResponse> last = taskService.searchTasks("report", page.getNext(), 2);
+
+        assertEquals(List.of(), last.getItems());
+        assertNull(last.getNext());
+    }
+
+    private static Specification<Task> anySpecification() {
+        return any();
+    }
+
+    private static Function<FetchableFluentQuery<Task>, List<Task>> anyQuery() {
+        return any();
     }
 }
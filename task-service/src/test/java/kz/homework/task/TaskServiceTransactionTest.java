@@ -0,0 +1,83 @@
+package kz.homework.task;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.homework.task.model.Status;
+import kz.homework.task.model.TaskRequest;
+import kz.homework.task.model.TaskResponse;
+import kz.homework.task.search.SearchHit;
+import kz.homework.task.search.TaskSearchIndexer;
+import kz.homework.task.service.TaskService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With {@code open-in-view} off the entity loaded by a service method is only reused by the repository call that
+ * changes it when both run in one transaction, otherwise the change loads it a second time.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskServiceTransactionTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchIndexer taskSearchIndexer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void updateTask_ShouldLoadTaskOnce() {
+        TaskResponse created = taskService.createTask(new TaskRequest("Update", null, Status.NEW));
+        statistics.clear();
+
+        TaskResponse updated = taskService.updateTask(created.getId(), new TaskRequest("Updated", null, Status.DONE), created.getVersion());
+
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        // select and update
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteTask_ShouldLoadTaskOnce() {
+        TaskResponse created = taskService.createTask(new TaskRequest("Delete", null, Status.NEW));
+        statistics.clear();
+
+        taskService.deleteTask(created.getId());
+
+        // select and delete
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteTasks_ShouldDeleteInOneStatement() {
+        for (int i = 0; i < 3; i++) {
+            taskService.createTask(new TaskRequest("Obsolete " + i, null, Status.DONE));
+        }
+        TaskResponse kept = taskService.createTask(new TaskRequest("Obsolete but new", null, Status.NEW));
+        statistics.clear();
+
+        int deleted = taskService.deleteTasks(Status.DONE);
+
+        assertTrue(deleted >= 3);
+        // ids of the status, the delete, and the ids still present after the commit
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(List.of(kept.getId()), taskSearchIndexer.search("obsolete", null, 10).stream().map(SearchHit::id).toList());
+    }
+}